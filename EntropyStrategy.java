@@ -0,0 +1,123 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * A guessing strategy that picks the word whose feedback tells it the most.
+ * 
+ * Every word of the right length is scored against the current candidates by
+ * the entropy of its feedback codes: a guess that splits the candidates into
+ * many small groups scores higher than one that leaves them in a few big ones.
+ * The guess does not have to be a candidate itself. Ties go to candidates, then
+ * to the lexicographically smallest word, so the strategy is deterministic.
+ * 
+ * Guesses are scored in parallel, each against all the candidates at once with a
+ * WordleBatchScorer, counting feedback codes in int arrays rather than comparing
+ * result strings. The first guess only depends on the dictionary,
+ * so it is worked out once per WordleCandidateIndex and remembered.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class EntropyStrategy implements GuessStrategy
+{
+    // Codes of words up to this long are counted in an array of 3^length entries,
+    // longer ones are sorted and counted
+    private static final int MAX_ARRAY_LENGTH = 10;
+    // One array of code counts per thread, 3^MAX_ARRAY_LENGTH long and all zero between calls
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[59049]);
+    
+    private Map<WordleCandidateIndex, Integer> firstGuesses;
+    
+    /**
+     * Constructs an EntropyStrategy.
+     */
+    public EntropyStrategy()
+    {
+        firstGuesses = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+    
+    /**
+     * Returns the word that maximises the entropy of the feedback over the
+     * candidates, or -1 if there are no candidates.
+     */
+    public int nextGuess(WordleCandidateIndex index, long[] candidates, int numGuesses)
+    {
+        int[] secrets = WordleCandidateIndex.toIds(candidates);
+        if (secrets.length <= 2)
+            return secrets.length == 0 ? -1 : secrets[0];
+        
+        if (numGuesses == 0 && secrets.length == index.size()) {
+            Integer firstGuess = firstGuesses.get(index);
+            if (firstGuess == null) {
+                firstGuess = bestGuess(index, candidates, secrets, false);
+                firstGuesses.put(index, firstGuess);
+            }
+            return firstGuess;
+        }
+        
+        // A word that cannot be the secret is no use as the last guess
+        return bestGuess(index, candidates, secrets, numGuesses == 5);
+    }
+    
+    /**
+     * Returns the entropy, in bits, of the feedback codes that guessing guess
+     * would get over the secrets.
+     */
+    public static double entropy(WordleCandidateIndex index, int guess, int[] secrets)
+    {
+        long[] codes = new long[secrets.length];
+        index.getBatchScorer().score(index.getWord(guess), secrets, secrets.length, codes);
+        
+        double sum = 0;
+        if (index.getWordLength() <= MAX_ARRAY_LENGTH) {
+            int[] counts = COUNTS.get();
+            for (long code: codes)
+                counts[(int) code]++;
+            // Each code's count is added once, then cleared for the next call
+            for (long code: codes) {
+                int count = counts[(int) code];
+                if (count > 0) {
+                    sum += count * Math.log(count);
+                    counts[(int) code] = 0;
+                }
+            }
+        } else {
+            Arrays.sort(codes);
+            int start = 0;
+            for (int i = 1; i <= codes.length; i++) {
+                if (i == codes.length || codes[i] != codes[start]) {
+                    sum += (i - start) * Math.log(i - start);
+                    start = i;
+                }
+            }
+        }
+        
+        double n = secrets.length;
+        return (Math.log(n) - sum / n) / Math.log(2);
+    }
+    
+    private int bestGuess(WordleCandidateIndex index, long[] candidates, int[] secrets, boolean candidatesOnly)
+    {
+        int[] guesses;
+        if (candidatesOnly) {
+            guesses = secrets;
+        } else {
+            guesses = new int[index.size()];
+            for (int i = 0; i < guesses.length; i++)
+                guesses[i] = i;
+        }
+        
+        double[] scores = new double[guesses.length];
+        IntStream.range(0, guesses.length).parallel()
+            .forEach(i -> scores[i] = entropy(index, guesses[i], secrets));
+        
+        int best = 0;
+        for (int i = 1; i < guesses.length; i++) {
+            if (scores[i] > scores[best])
+                best = i;
+            else if (scores[i] == scores[best] && !WordleCandidateIndex.contains(candidates, guesses[best])
+                     && WordleCandidateIndex.contains(candidates, guesses[i]))
+                best = i;
+        }
+        return guesses[best];
+    }
+}
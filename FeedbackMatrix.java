@@ -0,0 +1,274 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Stores the feedback code (see WordleGame.guessCode) of every guess and secret
+ * pair for one word length of a dictionary.
+ * 
+ * Words are numbered by their position in the sorted, duplicate-free list of
+ * words with that length, so getCode(guess, secret) is a single table lookup.
+ * Codes are stored in 1, 2, 4 or 8 bytes depending on the word length.
+ * 
+ * A matrix can be saved to a cache file named after a hash of its words and
+ * memory-mapped on later runs instead of being rebuilt.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class FeedbackMatrix
+{
+    // Directory used by load when no cache directory is given.
+    public static final String DEFAULT_CACHE_DIRECTORY = "feedback-cache";
+    
+    // "WFM1" followed by the word length, word count, cell size and key.
+    private static final int MAGIC = 0x57464d31;
+    private static final int HEADER_BYTES = 24;
+    
+    private int wordLength;
+    private String[] words;
+    private long key;
+    private int cellBytes;
+    // Row-major table of codes, indexed by guess * size + secret.
+    private ByteBuffer codes;
+    
+    private FeedbackMatrix(int wordLength, String[] words, long key, ByteBuffer codes)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        this.key = key;
+        this.cellBytes = cellBytesFor(wordLength);
+        this.codes = codes;
+    }
+    
+    /**
+     * Computes the matrix for all words in the dictionary with the given length.
+     * Rows are filled in parallel.
+     */
+    public static FeedbackMatrix build(WordleDictionary dictionary, int wordLength)
+    {
+        String[] words = sortedWords(dictionary, wordLength);
+        return build(words, wordLength, dictionary.getHash(wordLength));
+    }
+    
+    /**
+     * Returns the matrix for all words in the dictionary with the given length,
+     * using the cache in DEFAULT_CACHE_DIRECTORY.
+     */
+    public static FeedbackMatrix load(WordleDictionary dictionary, int wordLength)
+    {
+        return load(dictionary, wordLength, new File(DEFAULT_CACHE_DIRECTORY));
+    }
+    
+    /**
+     * Returns the matrix for all words in the dictionary with the given length.
+     * 
+     * If cacheDirectory holds a matrix for exactly these words it is memory-mapped.
+     * Otherwise the matrix is built and saved there for next time. If the cache
+     * cannot be read or written, the matrix is still returned, just without caching.
+     */
+    public static FeedbackMatrix load(WordleDictionary dictionary, int wordLength, File cacheDirectory)
+    {
+        String[] words = sortedWords(dictionary, wordLength);
+        long key = dictionary.getHash(wordLength);
+        File cacheFile = new File(cacheDirectory, cacheFileName(wordLength, key));
+        
+        if (cacheFile.isFile()) {
+            try {
+                FeedbackMatrix matrix = map(cacheFile, words, wordLength, key);
+                if (matrix != null)
+                    return matrix;
+            } catch (IOException e) {
+                System.out.println("Could not read the feedback cache: " + cacheFile);
+                e.printStackTrace();
+            }
+        }
+        
+        FeedbackMatrix matrix = build(words, wordLength, key);
+        try {
+            cacheDirectory.mkdirs();
+            matrix.save(cacheFile);
+        } catch (IOException e) {
+            System.out.println("Could not write the feedback cache: " + cacheFile);
+            e.printStackTrace();
+        }
+        return matrix;
+    }
+    
+    /**
+     * Returns the name of the cache file for a word length and dictionary hash.
+     */
+    public static String cacheFileName(int wordLength, long key)
+    {
+        return String.format("feedback-%d-%016x.bin", wordLength, key);
+    }
+    
+    /**
+     * Writes this matrix to file. The file is written next to its final location
+     * and then moved into place, so a partly written cache is never loaded.
+     */
+    public void save(File file) throws IOException
+    {
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(wordLength).putInt(words.length).putInt(cellBytes).putLong(key);
+            header.flip();
+            while (header.hasRemaining())
+                channel.write(header);
+            
+            ByteBuffer table = codes.duplicate();
+            table.clear();
+            while (table.hasRemaining())
+                channel.write(table);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Returns the word length of this matrix.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of words in this matrix.
+     */
+    public int size()
+    {
+        return words.length;
+    }
+    
+    /**
+     * Returns the word with the given id. Ids are in lexicographic order.
+     */
+    public String getWord(int id)
+    {
+        return words[id];
+    }
+    
+    /**
+     * Returns the id of word, or -1 if it is not in this matrix.
+     */
+    public int indexOf(String word)
+    {
+        int id = Arrays.binarySearch(words, word);
+        return id >= 0 ? id : -1;
+    }
+    
+    /**
+     * Returns the hash of the words this matrix was built from.
+     */
+    public long getKey()
+    {
+        return key;
+    }
+    
+    /**
+     * Returns the feedback code that guessing the word with id guess would get
+     * if the word with id secret was the secret word.
+     */
+    public long getCode(int guess, int secret)
+    {
+        int index = (guess * words.length + secret) * cellBytes;
+        switch (cellBytes) {
+            case 1:
+                return codes.get(index) & 0xffL;
+            case 2:
+                return codes.getShort(index) & 0xffffL;
+            case 4:
+                return codes.getInt(index) & 0xffffffffL;
+            default:
+                return codes.getLong(index);
+        }
+    }
+    
+    /**
+     * Returns true if the word with id candidate is consistent with the word with
+     * id previousGuess having got the feedback code. This is the same test as
+     * WordleAI.isConsistent.
+     */
+    public boolean isConsistent(int previousGuess, long code, int candidate)
+    {
+        return getCode(previousGuess, candidate) == code;
+    }
+    
+    private static FeedbackMatrix build(String[] words, int wordLength, long key)
+    {
+        int cellBytes = cellBytesFor(wordLength);
+        int n = words.length;
+        if ((long) n * n * cellBytes > Integer.MAX_VALUE - HEADER_BYTES)
+            throw new IllegalArgumentException("Too many words of length " + wordLength + " for a feedback matrix: " + n);
+        
+        WordleBatchScorer scorer = new WordleBatchScorer(wordLength, words);
+        
+        ByteBuffer codes = ByteBuffer.allocate(n * n * cellBytes);
+        IntStream.range(0, n).parallel().forEach(guess -> {
+            // Each row is scored in one batch, then copied into the matrix
+            long[] row = new long[n];
+            scorer.scoreAll(words[guess], row);
+            int index = guess * n * cellBytes;
+            for (int secret = 0; secret < n; secret++) {
+                long code = row[secret];
+                switch (cellBytes) {
+                    case 1:
+                        codes.put(index, (byte) code);
+                        break;
+                    case 2:
+                        codes.putShort(index, (short) code);
+                        break;
+                    case 4:
+                        codes.putInt(index, (int) code);
+                        break;
+                    default:
+                        codes.putLong(index, code);
+                }
+                index += cellBytes;
+            }
+        });
+        return new FeedbackMatrix(wordLength, words, key, codes);
+    }
+    
+    /**
+     * Maps a cache file, or returns null if it was not made for these words.
+     */
+    private static FeedbackMatrix map(File file, String[] words, int wordLength, long key) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long expectedSize = HEADER_BYTES + (long) words.length * words.length * cellBytesFor(wordLength);
+            if (channel.size() != expectedSize)
+                return null;
+            
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != wordLength || header.getInt() != words.length
+                    || header.getInt() != cellBytesFor(wordLength) || header.getLong() != key)
+                return null;
+            
+            // The mapping stays valid after the channel is closed
+            ByteBuffer codes = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, expectedSize - HEADER_BYTES);
+            return new FeedbackMatrix(wordLength, words, key, codes);
+        }
+    }
+    
+    private static int cellBytesFor(int wordLength)
+    {
+        // 3^5 = 243 fits in a byte, 3^10 = 59049 in a short and 3^20 in an int
+        if (wordLength <= 5)
+            return 1;
+        if (wordLength <= 10)
+            return 2;
+        if (wordLength <= 20)
+            return 4;
+        return 8;
+    }
+    
+    private static String[] sortedWords(WordleDictionary dictionary, int wordLength)
+    {
+        return dictionary.getSortedWordsWithLength(wordLength).toArray(new String[0]);
+    }
+}
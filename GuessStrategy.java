@@ -0,0 +1,21 @@
+/**
+ * Chooses the guesses that WordleAI.findWord makes.
+ * 
+ * A strategy is given the candidate set of the game so far (the words that are
+ * consistent with every guess and result, see WordleCandidateIndex) and picks the
+ * next word to guess. It may pick any word in the index, including words that
+ * are not candidates, but must not change the candidate set.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public interface GuessStrategy
+{
+    // The original WordleAI strategy: guess the lexicographically smallest consistent word.
+    GuessStrategy SMALLEST_CONSISTENT = new SmallestConsistentStrategy();
+    
+    /**
+     * Returns the id in index of the next word to guess, or -1 to give up.
+     * numGuesses is the number of guesses made so far.
+     */
+    int nextGuess(WordleCandidateIndex index, long[] candidates, int numGuesses);
+}
@@ -0,0 +1,78 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * A guessing strategy that opens with a word from a table made by WordleOpeningSearch,
+ * and leaves the rest of the game to another strategy.
+ * 
+ * Each table gives the best opening for one word length. Games of a length with no
+ * opening, or whose opening is not in the dictionary, are played by the other
+ * strategy from the start.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class OpeningBookStrategy implements GuessStrategy
+{
+    private GuessStrategy strategy;
+    // The opening for each word length
+    private HashMap<Integer, String> openings;
+    
+    /**
+     * Constructs a strategy with no openings that plays every guess after the first with strategy.
+     */
+    public OpeningBookStrategy(GuessStrategy strategy)
+    {
+        this.strategy = strategy;
+        openings = new HashMap<>();
+    }
+    
+    /**
+     * Sets the opening for games of length word.length().
+     */
+    public synchronized void setOpening(String word)
+    {
+        openings.put(word.length(), word);
+    }
+    
+    /**
+     * Returns the opening for games of the given length, or null if there is none.
+     */
+    public synchronized String getOpening(int length)
+    {
+        return openings.get(length);
+    }
+    
+    /**
+     * Sets the opening for the length of a table written by WordleOpeningSearch.writeTable
+     * to the best word in it.
+     */
+    public void load(File table) throws IOException
+    {
+        try (BufferedReader in = new BufferedReader(new FileReader(table))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] columns = line.split("\t");
+                if (columns.length > 1 && columns[0].equals("1")) {
+                    setOpening(columns[1]);
+                    return;
+                }
+            }
+        }
+        throw new IOException(table + " has no openings");
+    }
+    
+    /**
+     * Returns the opening for the index's word length as the first guess, and
+     * otherwise the guess of the other strategy.
+     */
+    public int nextGuess(WordleCandidateIndex index, long[] candidates, int numGuesses)
+    {
+        if (numGuesses == 0) {
+            String opening = getOpening(index.getWordLength());
+            int id = opening == null ? -1 : index.indexOf(opening);
+            if (id >= 0 && WordleCandidateIndex.contains(candidates, id))
+                return id;
+        }
+        return strategy.nextGuess(index, candidates, numGuesses);
+    }
+}
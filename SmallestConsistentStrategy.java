@@ -0,0 +1,16 @@
+/**
+ * The original WordleAI strategy: always guess the lexicographically smallest
+ * word that is consistent with every guess so far.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class SmallestConsistentStrategy implements GuessStrategy
+{
+    /**
+     * Returns the smallest candidate, or -1 if there are none.
+     */
+    public int nextGuess(WordleCandidateIndex index, long[] candidates, int numGuesses)
+    {
+        return WordleCandidateIndex.nextCandidate(candidates, 0);
+    }
+}
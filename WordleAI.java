@@ -2,7 +2,7 @@ import java.util.*;
 
 /**
  * This class contains static methods that play Wordle using a simple artificial intelligence.
- *
+ * 
  * @author 22708346 AND 23614901
  */
 public class WordleAI
@@ -22,6 +22,14 @@ public class WordleAI
         return guess.indexOf(c) > -1;
     }
     
+    /**
+     * Returns true if a word packed by WordlePackedWord contains the letter c and false otherwise.
+     */
+    public static boolean guessContains(long guess, char c)
+    {
+        return WordlePackedWord.contains(guess, c);
+    }
+    
     /**
      * Returns true if newGuess is consistent with a previousGuess and its result
      * and false otherwise.
@@ -44,6 +52,10 @@ public class WordleAI
      */
     public static boolean isConsistent(String previousGuess, String result, String newGuess)
     {
+        WordleGameTrace trace = WordleGameTrace.current();
+        if (trace != null)
+            trace.countConsistencyCheck();
+        
         char previousChar;
         char newChar;
         for (int i = 0; i < result.length(); i++) {
@@ -70,6 +82,28 @@ public class WordleAI
         return true;
     }
     
+    /**
+     * Returns true if newGuess is consistent with a previousGuess and the feedback code
+     * it got (see WordleGame.guessCode), where the words are packed by WordlePackedWord.
+     * This gives the same answer as isConsistent(String, String, String).
+     */
+    public static boolean isConsistent(long previousGuess, long code, long newGuess)
+    {
+        return isConsistent(previousGuess, code, newGuess, WordlePackedWord.letterMask(newGuess));
+    }
+    
+    /**
+     * Returns true if newGuess is consistent with a previousGuess and the feedback code
+     * it got, where the words are packed and newGuessLetters is the letter mask of newGuess.
+     */
+    public static boolean isConsistent(long previousGuess, long code, long newGuess, int newGuessLetters)
+    {
+        WordleGameTrace trace = WordleGameTrace.current();
+        if (trace != null)
+            trace.countConsistencyCheck();
+        return WordlePackedWord.score(previousGuess, newGuess, newGuessLetters) == code;
+    }
+    
     /**
      * Returns true if result contains only '*' characters
      * and false if it contains a non-'*' character.
@@ -115,34 +149,100 @@ public class WordleAI
      */
     public static ArrayList<String> findWord(WordleDictionary dictionary, WordleGame game)
     {
-        int counter;
-        String currentWord;
-        String result;
+        return findWord(dictionary, game, GuessStrategy.SMALLEST_CONSISTENT);
+    }
+    
+    /**
+     * Plays the game like findWord, but lets strategy choose each guess.
+     * With GuessStrategy.SMALLEST_CONSISTENT this is exactly findWord.
+     * 
+     * Returns the guesses in the order they were made, or null if the secret word
+     * was not found in 6 guesses or the strategy gave up.
+     */
+    public static ArrayList<String> findWord(WordleDictionary dictionary, WordleGame game, GuessStrategy strategy)
+    {
         ArrayList<String> guessedWords = new ArrayList<>();
-        ArrayList<String> guessResults = new ArrayList<>();
         int secretLength = game.getWordLength();
-        ArrayList<String> words = dictionary.getWordsWithLength(secretLength);
-
-        Collections.sort(words);
+        WordleCandidateIndex index = dictionary.getCandidateIndex(secretLength);
+        long solved = WordleGame.allCorrect(secretLength);
+        WordleGameTrace trace = WordleGameTrace.current();
+        
+        // The words that are consistent with every guess so far, as a bitset over the sorted words.
+        // The smallest of them is the word the original scan with isConsistent would find next.
+        long[] candidates = index.allCandidates();
+        int next = strategy.nextGuess(index, candidates, 0);
         
-        for (int i = 0; i < words.size(); i++) {
-            counter = 0;
-            currentWord = words.get(i);
+        while (next >= 0) {
+            String currentWord = index.getWord(next);
+            long code = game.guessCode(currentWord);
+            guessedWords.add(currentWord);
             
-            for (int j = 0; j < guessedWords.size(); j++) {
-                if (isConsistent(guessedWords.get(j), guessResults.get(j), currentWord))
-                    counter++;
-                else
-                    break;
+            if (code == solved)
+                return guessedWords;
+            if (game.getNumGuesses() == 6)
+                break;
+            
+            if (trace == null) {
+                index.filter(candidates, currentWord, code);
+            } else {
+                // Every remaining candidate is checked against the guess by the filter
+                int numScanned = WordleCandidateIndex.count(candidates);
+                index.filter(candidates, currentWord, code);
+                int numPruned = numScanned - WordleCandidateIndex.count(candidates);
+                trace.addConsistencyChecks(numScanned);
+                trace.countCandidates(numScanned, numPruned);
+            }
+            next = strategy.nextGuess(index, candidates, guessedWords.size());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Runs the same AI algorithm as findWord, but uses a FeedbackMatrix of the
+     * dictionary instead of the dictionary itself. Each consistency check is a
+     * single lookup in the matrix rather than a call to isConsistent.
+     * 
+     * The matrix must have the same word length as the game.
+     */
+    public static ArrayList<String> findWord(FeedbackMatrix matrix, WordleGame game)
+    {
+        if (matrix.getWordLength() != game.getWordLength())
+            throw new IllegalArgumentException("Matrix has word length " + matrix.getWordLength()
+                + " but the game has word length " + game.getWordLength());
+        
+        ArrayList<String> guessedWords = new ArrayList<>();
+        int[] guessIds = new int[6];
+        long[] guessCodes = new long[6];
+        int numGuessed = 0;
+        long solved = WordleGame.allCorrect(game.getWordLength());
+        WordleGameTrace trace = WordleGameTrace.current();
+        int numScanned = 0;
+        
+        for (int candidate = 0; candidate < matrix.size(); candidate++) {
+            int j = 0;
+            while (j < numGuessed && matrix.isConsistent(guessIds[j], guessCodes[j], candidate))
+                j++;
+            if (trace != null) {
+                trace.addConsistencyChecks(Math.min(j + 1, numGuessed));
+                numScanned++;
             }
             
             // Use the current word as the guess only if its consistent with every previous attempt
-            if (counter == guessedWords.size()) {
-                result = game.guessWord(currentWord);
+            if (j == numGuessed) {
+                if (trace != null && numGuessed > 0) {
+                    // The words skipped since the last guess were ruled out
+                    trace.countCandidates(numScanned, numScanned - 1);
+                    numScanned = 0;
+                }
+                String currentWord = matrix.getWord(candidate);
+                long code = game.guessCode(currentWord);
                 guessedWords.add(currentWord);
-                guessResults.add(result);
+                guessIds[numGuessed] = candidate;
+                guessCodes[numGuessed] = code;
+                numGuessed++;
                 
-                if (isAllStars(result))
+                if (code == solved)
                     return guessedWords;
             }
             
@@ -152,4 +252,26 @@ public class WordleAI
         
         return null;
     }
+    
+    /**
+     * Runs the same AI algorithm as findWord by walking a WordleDecisionTree
+     * compiled from the dictionary, so no candidates are checked at all.
+     * 
+     * The tree must have the same word length as the game.
+     */
+    public static ArrayList<String> findWord(WordleDecisionTree tree, WordleGame game)
+    {
+        return tree.findWord(game);
+    }
+    
+    /**
+     * Runs the same AI algorithm as findWord, but finds each guess with a parallel
+     * search over chunks of the candidates (see WordleParallelSearch).
+     * 
+     * The search must have the same word length as the game.
+     */
+    public static ArrayList<String> findWord(WordleParallelSearch search, WordleGame game)
+    {
+        return search.findWord(game);
+    }
 }
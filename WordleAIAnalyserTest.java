@@ -0,0 +1,474 @@
+import static org.junit.Assert.*;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * The test class WordleAIAnalyserTest.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleAIAnalyserTest
+{
+    private static final String[] WORDS = {"hit", "log", "ate", "cat", "axe", "bat", "hat", "cot", "cog", "dog",
+                                           "aaa", "baa", "bba", "dda", "eea", "ffa", "gga", "hha"};
+    
+    @Test
+    public void testParallelExperimentsKeepOrder()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser sequential = new WordleAIAnalyser(dict, 3);
+        WordleAIAnalyser parallel = new WordleAIAnalyser(dict, 3);
+        parallel.setParallelism(4);
+        
+        sequential.runExperimentsWithAllWords();
+        parallel.runExperimentsWithAllWords();
+        assertEquals(WORDS.length, parallel.getExperimentResults().size());
+        for (int i = 0; i < WORDS.length; i++) {
+            assertEquals(WORDS[i], parallel.getExperimentResults().get(i).getWord());
+            assertEquals(sequential.getExperimentResults().get(i).getGuesses(),
+                         parallel.getExperimentResults().get(i).getGuesses());
+        }
+        assertEquals(sequential.getUnsolvedWords(), parallel.getUnsolvedWords());
+    }
+    
+    @Test
+    public void testStatistics()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser analyser = new WordleAIAnalyser(dict, 3);
+        analyser.runExperiment("hha");
+        analyser.runExperiment("hha");
+        analyser.runExperiment("cat");
+        
+        assertEquals(new String[] {"hha"}, analyser.getUnsolvedWords().toArray());
+        assertArrayEquals(new int[] {0, 0, 1, 0, 0, 0, 2}, analyser.getNumGuessesFrequency());
+        
+        // "aaa", "bat" then "cat"
+        int[] letters = analyser.getGuessLetterFrequency();
+        assertEquals(5, letters[0]);
+        assertEquals(1, letters['b' - 'a']);
+        assertEquals(1, letters['c' - 'a']);
+        assertEquals(2, letters['t' - 'a']);
+        
+        // Changing the results returned does not change the analyser or its statistics
+        ArrayList<WordleExperimentResult> results = analyser.getExperimentResults();
+        results.set(0, new WordleExperimentResult("dog", null));
+        results.add(new WordleExperimentResult("cat", null));
+        assertEquals(3, analyser.getExperimentResults().size());
+        assertEquals("hha", analyser.getExperimentResults().get(0).getWord());
+        assertEquals(new String[] {"hha"}, analyser.getUnsolvedWords().toArray());
+        
+        // Each snapshot has its own result objects, with the same contents
+        WordleExperimentResult first = analyser.getExperimentResults().get(2);
+        WordleExperimentResult second = analyser.getExperimentResults().get(2);
+        assertNotSame(first, second);
+        assertEquals(first.getWord(), second.getWord());
+        assertEquals(first.getGuesses(), second.getGuesses());
+    }
+    
+    @Test
+    public void testMergeStatistics()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser all = new WordleAIAnalyser(dict, 3);
+        WordleAIAnalyser first = new WordleAIAnalyser(dict, 3);
+        WordleAIAnalyser second = new WordleAIAnalyser(dict, 3);
+        all.runExperimentsWithAllWords();
+        first.runExperimentsWithWordsBetween("a", "fzz");
+        second.runExperimentsWithWordsBetween("g", "zzz");
+        
+        WordleStatistics merged = new WordleStatistics();
+        merged.merge(first.getStatistics());
+        merged.merge(second.getStatistics());
+        assertEquals(WORDS.length, merged.getNumExperiments());
+        assertArrayEquals(all.getNumGuessesFrequency(), merged.getNumGuessesFrequency());
+        assertArrayEquals(all.getGuessLetterFrequency(), merged.getGuessLetterFrequency());
+        assertEquals(all.getUnsolvedWords(), merged.getUnsolvedWords());
+        
+        // A word recorded unsolved twice stays unsolved until both results are removed
+        WordleStatistics twice = new WordleStatistics();
+        twice.record("hha", null);
+        twice.record("hha", null);
+        WordleStatistics copy = new WordleStatistics();
+        copy.merge(twice);
+        copy.remove(new WordleExperimentResult("hha", null));
+        assertTrue(copy.isUnsolved("hha"));
+        assertEquals(1, copy.getNumGuessesFrequency()[6]);
+        copy.remove(new WordleExperimentResult("hha", null));
+        assertFalse(copy.isUnsolved("hha"));
+        assertEquals(0, copy.getNumGuessesFrequency()[6]);
+        assertTrue(twice.isUnsolved("hha"));
+    }
+    
+    @Test
+    public void testResultStore()
+    {
+        WordleResultStore store = new WordleResultStore(Arrays.asList("ate", "bat", "cat"));
+        for (int i = 0; i < 100; i++)
+            store.add("cat", new ArrayList<>(Arrays.asList("ate", "bat", "cat")));
+        store.add("dog", null);
+        
+        assertEquals(101, store.size());
+        assertEquals("cat", store.getWord(99));
+        assertTrue(store.isSolved(99));
+        assertEquals(new String[] {"ate", "bat", "cat"}, store.getGuesses(99).toArray());
+        assertEquals("dog", store.get(100).getWord());
+        assertFalse(store.isSolved(100));
+        assertEquals(null, store.get(100).getGuesses());
+    }
+    
+    @Test
+    public void testStrategies()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser original = new WordleAIAnalyser(dict, 3);
+        WordleAIAnalyser smallest = new WordleAIAnalyser(dict, 3, GuessStrategy.SMALLEST_CONSISTENT);
+        WordleAIAnalyser entropy = new WordleAIAnalyser(dict, 3, new EntropyStrategy());
+        original.runExperimentsWithAllWords();
+        smallest.runExperimentsWithAllWords();
+        entropy.runExperimentsWithAllWords();
+        
+        assertArrayEquals(original.getNumGuessesFrequency(), smallest.getNumGuessesFrequency());
+        assertFalse(original.getUnsolvedWords().isEmpty());
+        assertTrue(entropy.getUnsolvedWords().isEmpty());
+        for (WordleExperimentResult result: entropy.getExperimentResults()) {
+            ArrayList<String> guesses = result.getGuesses();
+            assertEquals(result.getWord(), guesses.get(guesses.size() - 1));
+        }
+    }
+    
+    @Test
+    public void testMetrics()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser analyser = new WordleAIAnalyser(dict, 3);
+        assertNull(analyser.getMetrics());
+        analyser.setMetricsEnabled(true);
+        analyser.runExperimentsWithAllWords();
+        
+        WordleMetrics metrics = analyser.getMetrics();
+        int numGuesses = 0;
+        for (WordleExperimentResult result: analyser.getExperimentResults())
+            numGuesses += result.getGuesses() == null ? 6 : result.getGuesses().size();
+        assertEquals(WORDS.length, metrics.getNumExperiments());
+        assertEquals(WORDS.length - analyser.getUnsolvedWords().size(), metrics.getNumSolved());
+        assertEquals(numGuesses, metrics.getGuessCalls());
+        assertTrue(metrics.getConsistencyChecks() > 0);
+        // Every game but "aaa" scans all the words after its first guess
+        assertEquals((WORDS.length - 1) * WORDS.length, metrics.getCandidatesScanned()[0]);
+        assertEquals(Math.min(10, WORDS.length), metrics.getSlowestWords().size());
+        assertTrue(metrics.getLatencyPercentile(0.99) <= metrics.getMaxLatency());
+        assertTrue(metrics.toJson().startsWith("{\"experiments\":" + WORDS.length + ","));
+        
+        // A snapshot does not change when more experiments are run
+        analyser.runExperiment("cat");
+        assertEquals(WORDS.length, metrics.getNumExperiments());
+        assertEquals(WORDS.length + 1, analyser.getMetrics().getNumExperiments());
+    }
+    
+    @Test
+    public void testStreamExperiments() throws IOException
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser stored = new WordleAIAnalyser(dict, 3);
+        stored.runExperimentsWithAllWords();
+        
+        WordleAIAnalyser streamed = new WordleAIAnalyser(dict, 3);
+        streamed.setParallelism(3);
+        WordleStatistics statistics = new WordleStatistics();
+        WordleHistogramSink histogram = new WordleHistogramSink();
+        ArrayList<String> order = new ArrayList<>();
+        File file = File.createTempFile("results", ".bin");
+        file.deleteOnExit();
+        try (WordleResultWriter writer = new WordleResultWriter(file, true)) {
+            streamed.streamExperimentsWithAllWords(statistics, histogram, writer,
+                batch -> batch.forEach(result -> order.add(result.getWord())));
+        }
+        
+        assertEquals(Arrays.asList(WORDS), order);
+        assertEquals(0, streamed.getResultStore().size());
+        assertEquals(stored.getUnsolvedWords(), statistics.getUnsolvedWords());
+        assertArrayEquals(stored.getGuessLetterFrequency(), statistics.getGuessLetterFrequency());
+        assertEquals(stored.makeHistogram(1), histogram.makeHistogram(1));
+        assertEquals(stored.makeHistogram(2), statistics.makeHistogram(2));
+        
+        WordleStatistics reread = new WordleStatistics();
+        WordleResultWriter.read(file, reread, 5);
+        assertArrayEquals(stored.getNumGuessesFrequency(), reread.getNumGuessesFrequency());
+        assertEquals(stored.getUnsolvedWords(), reread.getUnsolvedWords());
+    }
+    
+    @Test
+    public void testMultiLengthAnalyser()
+    {
+        ArrayList<String> words = new ArrayList<>(Arrays.asList(WORDS));
+        words.addAll(Arrays.asList("dogs", "cats", "bats", "tabs", "is", "it", "at"));
+        WordleDictionary dict = new WordleDictionary(words);
+        WordleMultiLengthAnalyser multi = new WordleMultiLengthAnalyser(dict);
+        multi.run(3);
+        assertEquals(Arrays.asList(2, 3, 4), multi.getWordLengths());
+        
+        WordleStatistics combined = new WordleStatistics();
+        for (int length: multi.getWordLengths()) {
+            WordleAIAnalyser single = new WordleAIAnalyser(dict, length);
+            single.runExperimentsWithAllWords();
+            assertArrayEquals(single.getNumGuessesFrequency(), multi.getStatistics(length).getNumGuessesFrequency());
+            assertEquals(single.getExperimentResults().size(), multi.getAnalyser(length).getExperimentResults().size());
+            combined.merge(single.getStatistics());
+        }
+        assertEquals(words.size(), multi.getCombinedStatistics().getNumExperiments());
+        assertArrayEquals(combined.getNumGuessesFrequency(), multi.getNumGuessesFrequency());
+        assertArrayEquals(combined.getGuessLetterFrequency(), multi.getGuessLetterFrequency());
+        assertEquals(combined.makeHistogram(1), multi.makeHistogram(1));
+    }
+    
+    @Test
+    public void testAdversarialSearch()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser analyser = new WordleAIAnalyser(dict, 3);
+        analyser.runExperimentsWithAllWords();
+        ArrayList<WordleExperimentResult> expected = new ArrayList<>(analyser.getExperimentResults());
+        expected.sort(Comparator.comparing((WordleExperimentResult result) ->
+            result.getGuesses() == null ? 7 : result.getGuesses().size()).reversed()
+            .thenComparing(WordleExperimentResult::getWord));
+        
+        WordleAdversarialSearch search = new WordleAdversarialSearch(dict, 3);
+        ArrayList<WordleExperimentResult> hardest = search.findHardestSecrets(5);
+        assertEquals(5, hardest.size());
+        for (int i = 0; i < hardest.size(); i++) {
+            assertEquals(expected.get(i).getWord(), hardest.get(i).getWord());
+            assertEquals(expected.get(i).getGuesses(), hardest.get(i).getGuesses());
+        }
+        
+        ArrayList<String> unsolved = new ArrayList<>();
+        for (WordleExperimentResult result: search.findUnsolvedSecrets())
+            unsolved.add(result.getWord());
+        ArrayList<String> expectedUnsolved = new ArrayList<>(analyser.getUnsolvedWords());
+        Collections.sort(expectedUnsolved);
+        assertEquals(expectedUnsolved, unsolved);
+        assertFalse(unsolved.isEmpty());
+        assertTrue(search.getNodesPruned() > 0);
+        
+        String secret = unsolved.get(0);
+        ArrayList<String> subset = search.findFailureSubset(secret);
+        assertEquals(7, subset.size());
+        assertNull(WordleAI.findWord(new WordleDictionary(subset), new WordleGame(secret)));
+        assertNull(search.findFailureSubset("hit"));
+    }
+    
+    @Test
+    public void testOpeningSearch() throws IOException
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        File checkpoint = File.createTempFile("openings", ".bin");
+        File table = File.createTempFile("openings", ".tsv");
+        checkpoint.delete();
+        try {
+            WordleOpeningSearch search = new WordleOpeningSearch(dict, 3, checkpoint);
+            search.run(2);
+            assertEquals(WORDS.length, search.getNumDone());
+            assertEquals(WORDS.length, search.getNumComputed());
+            for (String word: WORDS) {
+                OpeningBookStrategy strategy = new OpeningBookStrategy(GuessStrategy.SMALLEST_CONSISTENT);
+                strategy.setOpening(word);
+                WordleAIAnalyser analyser = new WordleAIAnalyser(dict, 3, strategy);
+                analyser.runExperimentsWithAllWords();
+                assertArrayEquals(analyser.getNumGuessesFrequency(), search.getNumGuessesFrequency(word));
+                assertTrue(search.getWorstCase(word) >= search.getExpectedRemaining(word));
+            }
+            HashMap<String, Integer> groups = new HashMap<>();
+            for (String secret: WORDS)
+                groups.merge(new WordleGame(secret).guessWord("hat"), 1, Integer::sum);
+            double sumOfSquares = 0;
+            for (int size: groups.values())
+                sumOfSquares += size * size;
+            assertEquals(sumOfSquares / WORDS.length, search.getExpectedRemaining("hat"), 1e-9);
+            assertEquals((int) Collections.max(groups.values()), search.getWorstCase("hat"));
+            
+            WordleOpeningSearch resumed = new WordleOpeningSearch(dict, 3, checkpoint);
+            assertEquals(WORDS.length, resumed.getNumDone());
+            resumed.run(1);
+            assertEquals(0, resumed.getNumComputed());
+            assertEquals(search.getRanking(), resumed.getRanking());
+            
+            resumed.writeTable(table);
+            OpeningBookStrategy strategy = new OpeningBookStrategy(GuessStrategy.SMALLEST_CONSISTENT);
+            strategy.load(table);
+            assertEquals(search.getRanking().get(0), strategy.getOpening(3));
+        } finally {
+            checkpoint.delete();
+            table.delete();
+        }
+    }
+    
+    @Test
+    public void testSampledExperiments()
+    {
+        WordleDictionary dict = new WordleDictionary();
+        WordleAIAnalyser full = new WordleAIAnalyser(dict, 5);
+        full.runExperimentsWithAllWords();
+        int[] frequency = full.getNumGuessesFrequency();
+        int numWords = full.getExperimentResults().size();
+        
+        WordleAIAnalyser sampled = new WordleAIAnalyser(dict, 5);
+        WordleSampleEstimate estimate = sampled.runSampledExperiments(42, 0.03, 0.95);
+        assertTrue(estimate.isPrecise(0.03));
+        assertTrue(estimate.getNumSamples() < numWords);
+        // The sampled results are only in the estimate
+        assertTrue(sampled.getExperimentResults().isEmpty());
+        assertEquals(0, sampled.getStatistics().getNumExperiments());
+        for (int i = 0; i < frequency.length; i++)
+            assertEquals((double) frequency[i] / numWords, estimate.getFraction(i), 2 * estimate.getHalfWidth(i));
+        
+        // The same seed samples the same words, however many threads solve them
+        WordleAIAnalyser parallel = new WordleAIAnalyser(dict, 5);
+        parallel.setParallelism(3);
+        WordleSampleEstimate parallelEstimate = parallel.runSampledExperiments(42, 0.03, 0.95);
+        assertEquals(estimate.getNumSamples(), parallelEstimate.getNumSamples());
+        assertArrayEquals(estimate.getSampleFrequency(), parallelEstimate.getSampleFrequency());
+        
+        // Sampling every word gives the exact frequencies
+        WordleDictionary small = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleAIAnalyser exact = new WordleAIAnalyser(small, 3);
+        WordleSampleEstimate all = exact.runSampledExperiments(7, 0.001, 0.99);
+        assertEquals(WORDS.length, all.getNumSamples());
+        assertEquals(0, all.getMaxHalfWidth(), 0);
+        exact.runExperimentsWithAllWords();
+        assertArrayEquals(exact.getNumGuessesFrequency(), all.getEstimatedNumGuessesFrequency());
+        assertEquals(small.getRandomWord(3, new SplittableRandom(5)), small.getRandomWord(3, new SplittableRandom(5)));
+    }
+    
+    @Test
+    public void testShardCoordinator() throws IOException
+    {
+        File words = File.createTempFile("words", ".txt");
+        WordleShardWorker first = null;
+        WordleShardWorker second = null;
+        try (ServerSocket dying = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             ServerSocket hanging = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            try (PrintWriter out = new PrintWriter(words)) {
+                for (String word: WORDS)
+                    out.println(word);
+            }
+            WordleDictionary dict = new WordleDictionary(words.getPath());
+            WordleAIAnalyser analyser = new WordleAIAnalyser(dict, 3);
+            analyser.runExperimentsWithAllWords();
+            
+            first = new WordleShardWorker(dict, 1);
+            first.start(0);
+            second = new WordleShardWorker(dict, 2);
+            second.start(0);
+            // A worker that dies after taking a shard, and one that is not there at all
+            Thread dies = new Thread(() -> {
+                try (Socket socket = dying.accept()) {
+                    socket.getInputStream().read();
+                } catch (IOException e) {
+                    // Closed by the test
+                }
+            });
+            dies.start();
+            // A worker that takes a shard and never replies, until the coordinator gives up on it
+            Thread hangs = new Thread(() -> {
+                try (Socket socket = hanging.accept()) {
+                    socket.getInputStream().readAllBytes();
+                } catch (IOException e) {
+                    // Closed by the test
+                }
+            });
+            hangs.start();
+            int closedPort;
+            try (ServerSocket closed = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+                closedPort = closed.getLocalPort();
+            }
+            
+            try (WordleShardCoordinator coordinator = new WordleShardCoordinator(dict, words.getPath(), 3)) {
+                coordinator.setReadTimeout(500);
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), dying.getLocalPort()));
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), hanging.getLocalPort()));
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), closedPort));
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), first.getPort()));
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), second.getPort()));
+                WordleStatistics merged = coordinator.run(5);
+                assertEquals(WORDS.length, merged.getNumExperiments());
+                assertArrayEquals(analyser.getNumGuessesFrequency(), merged.getNumGuessesFrequency());
+                assertArrayEquals(analyser.getGuessLetterFrequency(), merged.getGuessLetterFrequency());
+                assertEquals(analyser.getUnsolvedWords(), merged.getUnsolvedWords());
+                assertEquals(2, coordinator.getNumRedispatched());
+            }
+            
+            // A worker with other words refuses its shard, which fails the sweep, even after a healthy worker
+            WordleShardWorker mismatched = new WordleShardWorker(new WordleDictionary(new ArrayList<>(Arrays.asList("aaa", "bbb"))), 1);
+            mismatched.start(0);
+            try (WordleShardCoordinator coordinator = new WordleShardCoordinator(dict, words.getPath(), 3)) {
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), first.getPort()));
+                coordinator.addWorker(new InetSocketAddress(InetAddress.getLoopbackAddress(), mismatched.getPort()));
+                coordinator.run(WORDS.length);
+                fail("A refused shard should fail the sweep");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Worker refused shard"));
+            } finally {
+                mismatched.stop();
+            }
+            
+            // A worker in its own JVM gives the same statistics
+            try (WordleShardCoordinator coordinator = new WordleShardCoordinator(dict, words.getPath(), 3)) {
+                coordinator.launchWorkers(1, 1);
+                WordleStatistics merged = coordinator.run(3);
+                assertArrayEquals(analyser.getNumGuessesFrequency(), merged.getNumGuessesFrequency());
+                assertEquals(analyser.getUnsolvedWords(), merged.getUnsolvedWords());
+                assertEquals(0, coordinator.getNumRedispatched());
+            }
+            assertArrayEquals(new int[] {0, 3, 6, 10}, WordleShardCoordinator.split(10, 3));
+        } finally {
+            if (first != null)
+                first.stop();
+            if (second != null)
+                second.stop();
+            words.delete();
+        }
+    }
+    
+    @Test
+    public void testIncrementalAnalyser()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleIncrementalAnalyser incremental = new WordleIncrementalAnalyser(dict, 3);
+        incremental.runExperimentsWithAllWords();
+        
+        // "aaa" is the first guess of every game, and "hat" is only guessed when it is the secret
+        ArrayList<String> changed = new ArrayList<>(Arrays.asList(WORDS));
+        changed.removeAll(Arrays.asList("aaa", "hat", "cot"));
+        changed.addAll(Arrays.asList("hot", "bag"));
+        TreeSet<String> invalidated = incremental.getInvalidatedWords(Arrays.asList("hot", "bag"),
+                                                                      Arrays.asList("aaa", "hat", "cot"));
+        assertEquals(WORDS.length - 3, invalidated.size());
+        assertTrue(incremental.getInvalidatedWords(Arrays.asList("zzz"), Arrays.asList("hat")).isEmpty());
+        
+        WordleDictionary changedDict = new WordleDictionary(changed);
+        assertEquals(WORDS.length - 3 + 2, incremental.update(changedDict));
+        Collections.sort(changed);
+        WordleAIAnalyser analyser = new WordleAIAnalyser(new WordleDictionary(changed), 3);
+        analyser.runExperimentsWithAllWords();
+        assertEquals(changed.size(), incremental.getNumExperiments());
+        for (int i = 0; i < changed.size(); i++) {
+            assertEquals(changed.get(i), incremental.getExperimentResults().get(i).getWord());
+            assertEquals(analyser.getExperimentResults().get(i).getGuesses(),
+                         incremental.getExperimentResults().get(i).getGuesses());
+        }
+        
+        // Only the new word is solved when nothing else can change
+        changed.add("zzz");
+        assertEquals(1, incremental.update(new WordleDictionary(changed)));
+        analyser = new WordleAIAnalyser(new WordleDictionary(changed), 3);
+        analyser.runExperimentsWithAllWords();
+        WordleStatistics statistics = incremental.getStatistics();
+        assertEquals(changed.size(), statistics.getNumExperiments());
+        assertArrayEquals(analyser.getNumGuessesFrequency(), statistics.getNumGuessesFrequency());
+        assertArrayEquals(analyser.getGuessLetterFrequency(), statistics.getGuessLetterFrequency());
+        assertEquals(analyser.getUnsolvedWords(), statistics.getUnsolvedWords());
+    }
+}
@@ -2,6 +2,7 @@ import static org.junit.Assert.*;
 
 import org.junit.jupiter.api.Test;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The test class WordleAITest.
@@ -109,4 +110,80 @@ public class WordleAITest
         ArrayList<String> guesses = WordleAI.findWord(dict, game);
         assertEquals(new String[] {"bba", "bcc", "bdd"}, guesses.toArray());
     }
+    
+    @Test
+    public void testFindWordWithFeedbackMatrix()
+    {
+        String[] words = {"aa", "bb", "cc", "ca", "cb", "ab", "ba", "abc"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        FeedbackMatrix matrix = FeedbackMatrix.build(dict, 2);
+        assertEquals(7, matrix.size());
+        assertEquals(WordleGame.score("ab", "ba"), matrix.getCode(matrix.indexOf("ab"), matrix.indexOf("ba")));
+        
+        for (String word: dict.getWordsWithLength(2)) {
+            ArrayList<String> expected = WordleAI.findWord(dict, new WordleGame(word));
+            ArrayList<String> guesses = WordleAI.findWord(matrix, new WordleGame(word));
+            assertEquals(expected, guesses);
+        }
+    }
+    
+    @Test
+    public void testCandidateIndexFilterMatchesIsConsistent()
+    {
+        String[] words = {"dairy", "daddy", "dxaxx", "testa", "dzzza", "dxiry", "aaaaa"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        WordleCandidateIndex index = dict.getCandidateIndex(5);
+        
+        for (String secret: words) {
+            for (String guess: words) {
+                String result = new WordleGame(secret).guessWord(guess);
+                long[] candidates = index.allCandidates();
+                index.filter(candidates, guess, WordleGame.encodeResult(result));
+                
+                for (int i = 0; i < index.size(); i++) {
+                    boolean kept = WordleCandidateIndex.nextCandidate(candidates, i) == i;
+                    assertEquals(WordleAI.isConsistent(guess, result, index.getWord(i)), kept);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testFindWordWithDecisionTree()
+    {
+        String[] words = {"aaa", "baa", "bba", "dda", "eea", "ffa", "gga", "hha", "hit", "cat", "bat"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        WordleDecisionTree tree = WordleDecisionTree.compile(dict, 3);
+        List<String> sorted = dict.getSortedWordsWithLength(3);
+        ArrayList<ArrayList<String>> solutions = tree.solveAll();
+        
+        for (String word: words) {
+            ArrayList<String> expected = WordleAI.findWord(dict, new WordleGame(word));
+            assertEquals(expected, WordleAI.findWord(tree, new WordleGame(word)));
+            assertEquals(expected, solutions.get(sorted.indexOf(word)));
+        }
+        assertEquals(null, WordleAI.findWord(tree, new WordleGame("hha")));
+    }
+    
+    @Test
+    public void testFindWordWithParallelSearch()
+    {
+        WordleDictionary dict = new WordleDictionary();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Small chunks so that every game is split across many of them
+            WordleParallelSearch search = new WordleParallelSearch(dict, 5, pool, 64);
+            assertTrue(search.getNumChunks() > 10);
+            for (String word: dict.getWordsWithLength(5))
+                assertEquals(WordleAI.findWord(dict, new WordleGame(word)), WordleAI.findWord(search, new WordleGame(word)));
+            assertTrue(search.getNumChunksCancelled() > 0);
+            
+            WordleParallelSearch oneChunk = new WordleParallelSearch(dict, 3, pool, 1 << 20);
+            assertEquals(1, oneChunk.getNumChunks());
+            for (String word: dict.getWordsWithLength(3))
+                assertEquals(WordleAI.findWord(dict, new WordleGame(word)), oneChunk.findWord(new WordleGame(word)));
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,239 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds the secret words that are hardest for WordleAI.findWord, without playing every game.
+ * 
+ * findWord only depends on the feedback it has seen, so all its games for one word
+ * length form a tree (see WordleDecisionTree): each node has the candidates still
+ * possible, guesses the smallest of them, and splits the rest by feedback code. The
+ * search walks this tree on a ForkJoinPool, keeping the hardest secrets found so far.
+ * 
+ * Every guess rules out at least the word guessed, so a node with n candidates
+ * after d guesses cannot take any of them past d + n guesses. A subtree whose bound
+ * is below the hardest secrets already found cannot change the answer and is
+ * skipped; in particular, when looking for unsolved secrets, a subtree that is
+ * provably solved within 6 guesses is never explored.
+ * 
+ * The hardness of a secret is the number of guesses findWord needs, or 7 if it
+ * cannot find it. Secrets of equal hardness are ordered lexicographically.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleAdversarialSearch
+{
+    // The hardness of a secret that findWord cannot find
+    private static final int UNSOLVED = 7;
+    // Nodes with fewer candidates than this are searched on the current thread
+    private static final int FORK_THRESHOLD = 64;
+    
+    private int wordLength;
+    private WordleCandidateIndex index;
+    private ForkJoinPool pool;
+    private LongAdder nodesVisited;
+    private LongAdder nodesPruned;
+    
+    /**
+     * Constructs a search over the words in dictionary with the given length,
+     * run on the common ForkJoinPool.
+     */
+    public WordleAdversarialSearch(WordleDictionary dictionary, int wordLength)
+    {
+        this(dictionary, wordLength, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Constructs a search over the words in dictionary with the given length, run on pool.
+     */
+    public WordleAdversarialSearch(WordleDictionary dictionary, int wordLength, ForkJoinPool pool)
+    {
+        this.wordLength = wordLength;
+        this.pool = pool;
+        index = dictionary.getCandidateIndex(wordLength);
+        nodesVisited = new LongAdder();
+        nodesPruned = new LongAdder();
+    }
+    
+    /**
+     * Returns the k hardest secrets, hardest first, as the results findWord gets
+     * for them (with null guesses for unsolved secrets).
+     */
+    public ArrayList<WordleExperimentResult> findHardestSecrets(int k)
+    {
+        if (k < 1)
+            throw new IllegalArgumentException("k must be at least 1: " + k);
+        return search(k, 1);
+    }
+    
+    /**
+     * Returns every secret that findWord cannot find in 6 guesses, in lexicographic order,
+     * as results with null guesses. The same words as WordleAIAnalyser.getUnsolvedWords
+     * after runExperimentsWithAllWords.
+     */
+    public ArrayList<WordleExperimentResult> findUnsolvedSecrets()
+    {
+        return search(Integer.MAX_VALUE, UNSOLVED);
+    }
+    
+    /**
+     * Returns the smallest dictionary in which findWord still cannot find secret:
+     * the 6 words it guesses, then the secret. In a dictionary of just these words
+     * findWord makes the same guesses, because each guess was already the smallest
+     * consistent word of the whole dictionary. At least 6 other words are needed to
+     * use up 6 guesses, so no smaller dictionary fails.
+     * 
+     * Returns null if findWord does find secret.
+     */
+    public ArrayList<String> findFailureSubset(String secret)
+    {
+        ArrayList<String> guesses = getGuesses(secret);
+        if (guesses.contains(secret))
+            return null;
+        guesses.add(secret);
+        return guesses;
+    }
+    
+    /**
+     * Returns the guesses findWord makes for secret, including the 6 wrong
+     * guesses if it does not find it.
+     */
+    public ArrayList<String> getGuesses(String secret)
+    {
+        WordleGame game = new WordleGame(secret);
+        long[] candidates = index.allCandidates();
+        ArrayList<String> guesses = new ArrayList<>();
+        int next = WordleCandidateIndex.nextCandidate(candidates, 0);
+        while (next >= 0 && game.getNumGuesses() < 6) {
+            String guess = index.getWord(next);
+            long code = game.guessCode(guess);
+            guesses.add(guess);
+            if (guess.equals(secret))
+                break;
+            index.filter(candidates, guess, code);
+            next = WordleCandidateIndex.nextCandidate(candidates, next + 1);
+        }
+        return guesses;
+    }
+    
+    /**
+     * Returns the word length of the secrets searched.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of tree nodes visited by the searches so far.
+     */
+    public long getNodesVisited()
+    {
+        return nodesVisited.sum();
+    }
+    
+    /**
+     * Returns the number of subtrees skipped by the searches so far.
+     */
+    public long getNodesPruned()
+    {
+        return nodesPruned.sum();
+    }
+    
+    /**
+     * Returns the k hardest secrets with hardness at least minHardness, hardest first.
+     */
+    private ArrayList<WordleExperimentResult> search(int k, int minHardness)
+    {
+        HardestSecrets hardest = new HardestSecrets(k, minHardness);
+        int[] all = WordleCandidateIndex.toIds(index.allCandidates());
+        if (all.length > 0)
+            pool.invoke(ForkJoinTask.adapt(() -> searchNode(all, 0, hardest)));
+        
+        ArrayList<WordleExperimentResult> results = new ArrayList<>();
+        for (int id: hardest.getIds()) {
+            String word = index.getWord(id);
+            ArrayList<String> guesses = getGuesses(word);
+            results.add(new WordleExperimentResult(word, guesses.contains(word) ? guesses : null));
+        }
+        return results;
+    }
+    
+    /**
+     * Searches the node reached after depth guesses with the given candidates, in order.
+     */
+    private void searchNode(int[] secrets, int depth, HardestSecrets hardest)
+    {
+        nodesVisited.increment();
+        int guess = secrets[0];
+        hardest.offer(guess, depth + 1);
+        if (secrets.length == 1)
+            return;
+        if (depth + 1 == 6) {
+            // Out of guesses: every other candidate is unsolved
+            for (int i = 1; i < secrets.length; i++)
+                hardest.offer(secrets[i], UNSOLVED);
+            return;
+        }
+        
+        ArrayList<ForkJoinTask<?>> forked = new ArrayList<>();
+        for (int[] children: index.partition(guess, secrets)) {
+            // No secret below this node can need more than depth + 1 + children.length guesses
+            if (Math.min(depth + 1 + children.length, UNSOLVED) < hardest.getThreshold()) {
+                nodesPruned.increment();
+            } else if (children.length >= FORK_THRESHOLD) {
+                forked.add(ForkJoinTask.adapt(() -> searchNode(children, depth + 1, hardest)).fork());
+            } else {
+                searchNode(children, depth + 1, hardest);
+            }
+        }
+        for (ForkJoinTask<?> task: forked)
+            task.join();
+    }
+    
+    /**
+     * The hardest secrets found so far, shared by the tasks of a search.
+     */
+    private static class HardestSecrets
+    {
+        private int k;
+        private int minHardness;
+        // (UNSOLVED - hardness) << 32 | id, so the hardest and then smallest secret comes first
+        private TreeSet<Long> best;
+        // A subtree is only searched if it could have a secret at least this hard
+        private volatile int threshold;
+        
+        HardestSecrets(int k, int minHardness)
+        {
+            this.k = k;
+            this.minHardness = minHardness;
+            best = new TreeSet<>();
+            threshold = minHardness;
+        }
+        
+        synchronized void offer(int id, int hardness)
+        {
+            if (hardness < threshold)
+                return;
+            best.add(((long) (UNSOLVED - hardness) << 32) | id);
+            if (best.size() > k) {
+                best.pollLast();
+                threshold = Math.max(minHardness, UNSOLVED - (int) (best.last() >>> 32));
+            }
+        }
+        
+        int getThreshold()
+        {
+            return threshold;
+        }
+        
+        synchronized int[] getIds()
+        {
+            int[] ids = new int[best.size()];
+            int i = 0;
+            for (long entry: best)
+                ids[i++] = (int) entry;
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.*;
+
+/**
+ * Scores one guess against many secret words at once.
+ * 
+ * The words are stored as columns: one byte array per letter position, holding
+ * that letter of every word, plus the letter mask of every word. Scoring a guess
+ * walks each column once from start to end, adding one digit of every word's
+ * feedback code, which keeps the inner loop short, branch-free and easy for the
+ * JIT to unroll. The codes are the same as WordleGame.score gives for each word.
+ * 
+ * Words with letters other than 'a'-'z' cannot go into a byte column, so if
+ * there are any, every word is scored one at a time with WordleGame.score instead.
+ * 
+ * The inner loops are plain Java rather than the incubating Vector API, which
+ * would need extra compiler and runtime flags; their simple shape lets the JIT
+ * compile them well on its own.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleBatchScorer
+{
+    private int wordLength;
+    private List<String> words;
+    // columns[position][i] is the letter (0 for 'a') of word i at position, or null if the words are not all 'a'-'z'
+    private byte[][] columns;
+    private int[] letterMasks;
+    
+    /**
+     * Builds a scorer over words, which must all have length wordLength.
+     */
+    public WordleBatchScorer(int wordLength, String[] words)
+    {
+        this(wordLength, Arrays.asList(words));
+    }
+    
+    /**
+     * Builds a scorer over words, which must all have length wordLength.
+     * The words are only read again if they cannot all go into byte columns.
+     */
+    public WordleBatchScorer(int wordLength, List<String> words)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        int numWords = words.size();
+        letterMasks = new int[numWords];
+        // Words too long to score are left to WordleGame.score, which rejects them
+        columns = wordLength <= WordleGame.MAX_CODE_LENGTH ? new byte[wordLength][numWords] : null;
+        for (int i = 0; i < numWords; i++) {
+            String word = words.get(i);
+            letterMasks[i] = WordleGame.letterMask(word);
+            for (int position = 0; position < wordLength && columns != null; position++) {
+                int letter = word.charAt(position) - 'a';
+                if (letter < 0 || letter >= 26)
+                    columns = null;
+                else
+                    columns[position][i] = (byte) letter;
+            }
+        }
+    }
+    
+    /**
+     * Builds a scorer over words, sharing the letter masks of a WordleCandidateIndex over
+     * the same words and reading the letters from its packed words, so that no word is
+     * read again and only the columns are added to the heap.
+     */
+    WordleBatchScorer(int wordLength, List<String> words, int[] letterMasks, long[] packedWords)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        this.letterMasks = letterMasks;
+        // Packed words are always 'a'-'z'
+        columns = new byte[wordLength][packedWords.length];
+        for (int i = 0; i < packedWords.length; i++) {
+            for (int position = 0; position < wordLength; position++)
+                columns[position][i] = (byte) (WordlePackedWord.letterAt(packedWords[i], position) - 'a');
+        }
+    }
+    
+    /**
+     * Returns the number of bytes of heap held by the letter columns, which are not
+     * shared with anything else.
+     */
+    long getColumnBytes()
+    {
+        return columns == null ? 0 : (long) wordLength * words.size();
+    }
+    
+    /**
+     * Returns the number of words in this scorer.
+     */
+    public int size()
+    {
+        return words.size();
+    }
+    
+    /**
+     * Returns the word length of this scorer.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Puts into codes[i] the feedback code that guess would get if word i were the secret,
+     * for every word. codes must be at least size() long.
+     */
+    public void scoreAll(String guess, long[] codes)
+    {
+        checkGuess(guess);
+        int n = words.size();
+        if (columns == null) {
+            for (int i = 0; i < n; i++)
+                codes[i] = WordleGame.score(guess, words.get(i), letterMasks[i]);
+            return;
+        }
+        
+        Arrays.fill(codes, 0, n, 0);
+        // weight is 3^position, the weight of the position's digit in a feedback code
+        long weight = 1;
+        for (int position = 0; position < wordLength; position++, weight *= 3) {
+            int letter = guess.charAt(position) - 'a';
+            // A letter that no word has adds ABSENT, which is 0
+            if (letter < 0 || letter >= 26)
+                continue;
+            byte[] column = columns[position];
+            for (int i = 0; i < n; i++) {
+                int digit = column[i] == letter ? WordleGame.CORRECT : (letterMasks[i] >>> letter) & 1;
+                codes[i] += digit * weight;
+            }
+        }
+    }
+    
+    /**
+     * Puts into codes[j] the feedback code that guess would get if word secrets[j]
+     * were the secret, for j from 0 to count - 1.
+     */
+    public void score(String guess, int[] secrets, int count, long[] codes)
+    {
+        checkGuess(guess);
+        if (columns == null) {
+            for (int j = 0; j < count; j++)
+                codes[j] = WordleGame.score(guess, words.get(secrets[j]), letterMasks[secrets[j]]);
+            return;
+        }
+        
+        Arrays.fill(codes, 0, count, 0);
+        long weight = 1;
+        for (int position = 0; position < wordLength; position++, weight *= 3) {
+            int letter = guess.charAt(position) - 'a';
+            if (letter < 0 || letter >= 26)
+                continue;
+            byte[] column = columns[position];
+            for (int j = 0; j < count; j++) {
+                int secret = secrets[j];
+                int digit = column[secret] == letter ? WordleGame.CORRECT : (letterMasks[secret] >>> letter) & 1;
+                codes[j] += digit * weight;
+            }
+        }
+    }
+    
+    private void checkGuess(String guess)
+    {
+        if (guess.length() != wordLength)
+            throw new IllegalArgumentException("Guess \"" + guess + "\" does not have length " + wordLength);
+    }
+}
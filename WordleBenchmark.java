@@ -0,0 +1,500 @@
+import java.io.*;
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+/**
+ * A benchmark of one operation, and a main method that runs the whole benchmark suite.
+ * 
+ * The suite covers WordleGame scoring (one pair at a time and in batches with
+ * WordleBatchScorer), WordleAI.isConsistent, WordleAI.findWord for
+ * each word length (and with a WordleParallelSearch on the synthetic dictionary),
+ * loading a WordleDictionary and getWordsWithLength, and
+ * WordleAIAnalyser.runExperimentsWithAllWords and its statistics methods. It uses
+ * words.txt and a synthetic dictionary of random words, so large dictionaries
+ * can be measured without a large word file.
+ * 
+ * Each benchmark is warmed up, then timed for a number of iterations. Along with
+ * throughput it reports the bytes allocated per operation and the garbage
+ * collections during measurement. Results can be saved to a file and compared
+ * with a saved baseline; main exits with status 1 if any benchmark got slower
+ * than the baseline by more than the threshold, so it can gate a change.
+ * 
+ * Run it from the project directory after compiling, for example:
+ * 
+ *     java WordleBenchmark --save before.txt
+ *     java WordleBenchmark --baseline before.txt --filter findWord
+ * 
+ * or with Maven, as mvn compile exec:java -Dexec.args="--filter findWord".
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleBenchmark
+{
+    private static final String WORDS_FILE = "words.txt";
+    // Benchmark results are added to this so the JIT cannot remove the work
+    private static volatile long sink;
+    
+    private String name;
+    // The operation returns a value to sink and does batchSize operations per call
+    private LongSupplier operation;
+    private int batchSize;
+    
+    private double opsPerSecond;
+    private double error;
+    private double bytesPerOp;
+    private long gcCount;
+    private long gcMillis;
+    
+    /**
+     * Constructs a benchmark of an operation that does batchSize operations each time it is called.
+     */
+    public WordleBenchmark(String name, int batchSize, LongSupplier operation)
+    {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.operation = operation;
+    }
+    
+    /**
+     * Runs the benchmark: warmupIterations untimed iterations, then iterations timed
+     * ones, each lasting about iterationMillis milliseconds.
+     */
+    public void run(int warmupIterations, int iterations, long iterationMillis)
+    {
+        for (int i = 0; i < warmupIterations; i++)
+            iterate(iterationMillis);
+        
+        double[] rates = new double[iterations];
+        long ops = 0;
+        long allocated = allocatedBytes();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            long calls = iterate(iterationMillis);
+            rates[i] = calls * batchSize * 1e9 / (System.nanoTime() - start);
+            ops += calls * batchSize;
+        }
+        allocated = allocatedBytes() - allocated;
+        gcCount = gcCount() - gcCountBefore;
+        gcMillis = gcMillis() - gcMillisBefore;
+        
+        double sum = 0;
+        for (double rate: rates)
+            sum += rate;
+        opsPerSecond = sum / iterations;
+        double squares = 0;
+        for (double rate: rates)
+            squares += (rate - opsPerSecond) * (rate - opsPerSecond);
+        error = iterations > 1 ? Math.sqrt(squares / (iterations - 1)) : 0;
+        bytesPerOp = allocated < 0 ? Double.NaN : (double) allocated / ops;
+    }
+    
+    /**
+     * Returns the name of this benchmark.
+     */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * Returns the mean operations per second of the last run.
+     */
+    public double getOpsPerSecond()
+    {
+        return opsPerSecond;
+    }
+    
+    /**
+     * Returns the standard deviation of the operations per second over the iterations of the last run.
+     */
+    public double getError()
+    {
+        return error;
+    }
+    
+    /**
+     * Returns the bytes allocated per operation in the last run, or NaN if the JVM cannot measure it.
+     * Only allocation by the thread running the benchmark is counted.
+     */
+    public double getBytesPerOp()
+    {
+        return bytesPerOp;
+    }
+    
+    /**
+     * Returns the number of garbage collections during the last run.
+     */
+    public long getGcCount()
+    {
+        return gcCount;
+    }
+    
+    /**
+     * Returns the time spent in garbage collection during the last run, in milliseconds.
+     */
+    public long getGcMillis()
+    {
+        return gcMillis;
+    }
+    
+    /**
+     * Runs the benchmark suite. The options are:
+     * 
+     *     --filter text        only run benchmarks whose names contain text
+     *     --warmup n           warmup iterations (default 3)
+     *     --iterations n       measured iterations (default 5)
+     *     --time ms            milliseconds per iteration (default 1000)
+     *     --synthetic n        words in the synthetic dictionary (default 100000)
+     *     --save file          save the results to file
+     *     --baseline file      compare the results with a file saved by --save
+     *     --threshold percent  slowdown that counts as a regression (default 10)
+     */
+    public static void main(String[] args) throws IOException
+    {
+        HashMap<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--"))
+                throw new IllegalArgumentException("Expected an option but found " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        String filter = options.getOrDefault("filter", "");
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        long time = Long.parseLong(options.getOrDefault("time", "1000"));
+        int syntheticSize = Integer.parseInt(options.getOrDefault("synthetic", "100000"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10")) / 100;
+        
+        ArrayList<WordleBenchmark> results = new ArrayList<>();
+        System.out.println(String.format("%-56s %14s %12s %12s %6s", "Benchmark", "ops/s", "error", "B/op", "gc"));
+        for (WordleBenchmark benchmark: makeSuite(syntheticSize)) {
+            if (!benchmark.getName().contains(filter))
+                continue;
+            benchmark.run(warmup, iterations, time);
+            results.add(benchmark);
+            System.out.println(String.format("%-56s %14.1f %12.1f %12.1f %6d", benchmark.getName(),
+                benchmark.getOpsPerSecond(), benchmark.getError(), benchmark.getBytesPerOp(), benchmark.getGcCount()));
+        }
+        
+        if (options.containsKey("save"))
+            save(results, new File(options.get("save")));
+        if (options.containsKey("baseline")) {
+            int regressions = compare(results, load(new File(options.get("baseline"))), threshold);
+            if (regressions > 0)
+                System.exit(1);
+        }
+    }
+    
+    /**
+     * Returns the benchmarks of the suite, using words.txt and a synthetic dictionary of syntheticSize words.
+     */
+    public static ArrayList<WordleBenchmark> makeSuite(int syntheticSize) throws IOException
+    {
+        ArrayList<WordleBenchmark> suite = new ArrayList<>();
+        WordleDictionary dictionary = new WordleDictionary(WORDS_FILE);
+        ArrayList<String> syntheticWords = makeSyntheticWords(syntheticSize, 42);
+        WordleDictionary synthetic = new WordleDictionary(syntheticWords);
+        File syntheticFile = File.createTempFile("wordle-benchmark", ".txt");
+        syntheticFile.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(syntheticFile)))) {
+            for (String word: syntheticWords)
+                out.println(word);
+        }
+        
+        // Pairs of 5-letter words to score, and the results of scoring them
+        List<String> fives = dictionary.getSortedWordsWithLength(5);
+        Random random = new Random(1);
+        int numPairs = 1024;
+        String[] guesses = new String[numPairs];
+        String[] secrets = new String[numPairs];
+        String[] results = new String[numPairs];
+        String[] others = new String[numPairs];
+        long[] packedGuesses = new long[numPairs];
+        long[] codes = new long[numPairs];
+        long[] packedOthers = new long[numPairs];
+        int[] otherMasks = new int[numPairs];
+        for (int i = 0; i < numPairs; i++) {
+            guesses[i] = fives.get(random.nextInt(fives.size()));
+            secrets[i] = fives.get(random.nextInt(fives.size()));
+            others[i] = fives.get(random.nextInt(fives.size()));
+            results[i] = new WordleGame(secrets[i]).guessWord(guesses[i]);
+            packedGuesses[i] = WordlePackedWord.pack(guesses[i]);
+            codes[i] = WordleGame.encodeResult(results[i]);
+            packedOthers[i] = WordlePackedWord.pack(others[i]);
+            otherMasks[i] = WordleGame.letterMask(others[i]);
+        }
+        
+        suite.add(new WordleBenchmark("WordleGame.guessWord/5", numPairs, () -> {
+            long hash = 0;
+            for (int i = 0; i < numPairs; i++)
+                hash += new WordleGame(secrets[i]).guessWord(guesses[i]).hashCode();
+            return hash;
+        }));
+        suite.add(new WordleBenchmark("WordleGame.score/5", numPairs, () -> {
+            long hash = 0;
+            for (int i = 0; i < numPairs; i++)
+                hash += WordleGame.score(guesses[i], secrets[i]);
+            return hash;
+        }));
+        // One guess against every 5-letter word, one pair at a time and in a batch
+        String[] fiveWords = fives.toArray(new String[0]);
+        int[] fiveMasks = new int[fiveWords.length];
+        for (int i = 0; i < fiveWords.length; i++)
+            fiveMasks[i] = WordleGame.letterMask(fiveWords[i]);
+        WordleBatchScorer scorer = new WordleBatchScorer(5, fiveWords);
+        long[] batchCodes = new long[fiveWords.length];
+        int[] nextGuess = new int[1];
+        suite.add(new WordleBenchmark("WordleGame.score.all/5", fiveWords.length, () -> {
+            String guess = fiveWords[nextGuess[0]++ % fiveWords.length];
+            long hash = 0;
+            for (int i = 0; i < fiveWords.length; i++)
+                hash += WordleGame.score(guess, fiveWords[i], fiveMasks[i]);
+            return hash;
+        }));
+        suite.add(new WordleBenchmark("WordleBatchScorer.scoreAll/5", fiveWords.length, () -> {
+            scorer.scoreAll(fiveWords[nextGuess[0]++ % fiveWords.length], batchCodes);
+            return batchCodes[0];
+        }));
+        suite.add(new WordleBenchmark("WordleAI.isConsistent.string/5", numPairs, () -> {
+            long count = 0;
+            for (int i = 0; i < numPairs; i++) {
+                if (WordleAI.isConsistent(guesses[i], results[i], others[i]))
+                    count++;
+            }
+            return count;
+        }));
+        suite.add(new WordleBenchmark("WordleAI.isConsistent.packed/5", numPairs, () -> {
+            long count = 0;
+            for (int i = 0; i < numPairs; i++) {
+                if (WordleAI.isConsistent(packedGuesses[i], codes[i], packedOthers[i], otherMasks[i]))
+                    count++;
+            }
+            return count;
+        }));
+        
+        addFindWord(suite, "words", dictionary);
+        addFindWord(suite, "synthetic", synthetic);
+        addParallelFindWord(suite, "synthetic", synthetic);
+        
+        suite.add(new WordleBenchmark("WordleDictionary.load/words", 1,
+            () -> new WordleDictionary(WORDS_FILE).getSortedWordsWithLength(5).size()));
+        suite.add(new WordleBenchmark("WordleDictionary.load/synthetic", 1,
+            () -> new WordleDictionary(syntheticFile.getPath()).getSortedWordsWithLength(5).size()));
+        suite.add(new WordleBenchmark("WordleDictionary.getWordsWithLength/words-5", 1,
+            () -> dictionary.getWordsWithLength(5).size()));
+        suite.add(new WordleBenchmark("WordleDictionary.getWordsWithLength/synthetic-5", 1,
+            () -> synthetic.getWordsWithLength(5).size()));
+        
+        // The index of an off-heap dictionary is still on the heap, so B/op is the heap it costs per word
+        List<String> offHeapSorted = new WordleDictionary(syntheticFile.getPath(), true).getSortedWordsWithLength(5);
+        suite.add(new WordleBenchmark("WordleCandidateIndex.build/offheap-synthetic-5", Math.max(1, offHeapSorted.size()), () -> {
+            WordleCandidateIndex index = new WordleCandidateIndex(5, offHeapSorted);
+            index.getBatchScorer();
+            return index.getHeapBytes();
+        }));
+        
+        addAnalyser(suite, "words-5", dictionary, 5);
+        addAnalyser(suite, "synthetic-5", synthetic, 5);
+        return suite;
+    }
+    
+    /**
+     * Returns count random words of 3 to 10 lowercase letters, with more
+     * words of the middle lengths, the same every time for the same seed.
+     */
+    public static ArrayList<String> makeSyntheticWords(int count, long seed)
+    {
+        Random random = new Random(seed);
+        // Letters roughly as common as in English words
+        String letters = "eeeeeeeeeeaaaaaaaarrrrrrriiiiiiioooooootttttttnnnnnnsssssslllllcccccuuuudddpppmmmhhhgggbbffyywkvxzjq";
+        ArrayList<String> words = new ArrayList<>(count);
+        char[] word = new char[10];
+        for (int n = 0; n < count; n++) {
+            int length = 3 + Math.min(7, Math.abs((int) Math.round(random.nextGaussian() * 1.5 + 3)));
+            for (int i = 0; i < length; i++)
+                word[i] = letters.charAt(random.nextInt(letters.length()));
+            words.add(new String(word, 0, length));
+        }
+        return words;
+    }
+    
+    /**
+     * Saves results to file, one tab-separated line per benchmark.
+     */
+    public static void save(List<WordleBenchmark> results, File file) throws IOException
+    {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            for (WordleBenchmark result: results)
+                out.println(result.getName() + "\t" + result.getOpsPerSecond() + "\t"
+                    + result.getError() + "\t" + result.getBytesPerOp());
+        }
+    }
+    
+    /**
+     * Returns the results saved in file by save, as arrays of operations per second,
+     * error and bytes per operation keyed by benchmark name.
+     */
+    public static LinkedHashMap<String, double[]> load(File file) throws IOException
+    {
+        LinkedHashMap<String, double[]> baseline = new LinkedHashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 4)
+                    baseline.put(fields[0], new double[] {Double.parseDouble(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3])});
+            }
+        }
+        return baseline;
+    }
+    
+    /**
+     * Prints how results changed from a baseline and returns the number of regressions.
+     * A benchmark has regressed if its throughput dropped by more than threshold
+     * (0.1 is 10%) and by more than the errors of both measurements together.
+     */
+    public static int compare(List<WordleBenchmark> results, Map<String, double[]> baseline, double threshold)
+    {
+        int regressions = 0;
+        System.out.println();
+        System.out.println(String.format("%-56s %14s %14s %8s %12s", "Benchmark", "baseline ops/s", "ops/s", "change", "B/op change"));
+        for (WordleBenchmark result: results) {
+            double[] before = baseline.get(result.getName());
+            if (before == null) {
+                System.out.println(String.format("%-56s %14s %14.1f", result.getName(), "-", result.getOpsPerSecond()));
+                continue;
+            }
+            
+            double change = result.getOpsPerSecond() / before[0] - 1;
+            boolean regressed = change < -threshold
+                && before[0] - result.getOpsPerSecond() > before[1] + result.getError();
+            if (regressed)
+                regressions++;
+            System.out.println(String.format("%-56s %14.1f %14.1f %+7.1f%% %+12.1f%s", result.getName(),
+                before[0], result.getOpsPerSecond(), change * 100, result.getBytesPerOp() - before[2],
+                regressed ? "  REGRESSION" : ""));
+        }
+        System.out.println(regressions + " regression(s) beyond " + Math.round(threshold * 100) + "%");
+        return regressions;
+    }
+    
+    /**
+     * Adds a findWord benchmark for each word length in the dictionary, cycling through the secret words.
+     */
+    private static void addFindWord(ArrayList<WordleBenchmark> suite, String dictionaryName, WordleDictionary dictionary)
+    {
+        for (int length = 1; length <= WordleGame.MAX_CODE_LENGTH; length++) {
+            List<String> words = dictionary.getSortedWordsWithLength(length);
+            if (words.isEmpty())
+                continue;
+            // The index is built outside the timed loop, as it is shared between games
+            dictionary.getCandidateIndex(length);
+            int[] next = new int[1];
+            suite.add(new WordleBenchmark("WordleAI.findWord/" + dictionaryName + "-" + length, 1, () -> {
+                String secret = words.get(next[0]);
+                next[0] = (next[0] + 1) % words.size();
+                ArrayList<String> guesses = WordleAI.findWord(dictionary, new WordleGame(secret));
+                return guesses == null ? 0 : guesses.size();
+            }));
+        }
+    }
+    
+    /**
+     * Adds a benchmark of findWord with a WordleParallelSearch for each word length in
+     * the dictionary, playing the same games as addFindWord so the two can be compared.
+     * The chunks are sized so each core has a few, however big the dictionary is; the
+     * search only pays off on large dictionaries (try --synthetic 1000000).
+     */
+    private static void addParallelFindWord(ArrayList<WordleBenchmark> suite, String dictionaryName,
+                                            WordleDictionary dictionary)
+    {
+        int numThreads = ForkJoinPool.getCommonPoolParallelism();
+        for (int length = 1; length <= WordleGame.MAX_CODE_LENGTH; length++) {
+            List<String> words = dictionary.getSortedWordsWithLength(length);
+            if (words.isEmpty())
+                continue;
+            WordleParallelSearch search = new WordleParallelSearch(dictionary, length, ForkJoinPool.commonPool(),
+                                                                   Math.max(64, words.size() / (4 * numThreads)));
+            int[] next = new int[1];
+            suite.add(new WordleBenchmark("WordleAI.findWord/parallel-" + dictionaryName + "-" + length, 1, () -> {
+                String secret = words.get(next[0]);
+                next[0] = (next[0] + 1) % words.size();
+                ArrayList<String> guesses = WordleAI.findWord(search, new WordleGame(secret));
+                return guesses == null ? 0 : guesses.size();
+            }));
+        }
+    }
+    
+    /**
+     * Adds benchmarks of a full analysis and of each statistics method of an analysed analyser.
+     */
+    private static void addAnalyser(ArrayList<WordleBenchmark> suite, String name, WordleDictionary dictionary, int length)
+    {
+        suite.add(new WordleBenchmark("WordleAIAnalyser.runExperimentsWithAllWords/" + name, 1, () -> {
+            WordleAIAnalyser analyser = new WordleAIAnalyser(dictionary, length);
+            analyser.runExperimentsWithAllWords();
+            return analyser.getResultStore().size();
+        }));
+        
+        WordleAIAnalyser analyser = new WordleAIAnalyser(dictionary, length);
+        analyser.runExperimentsWithAllWords();
+        suite.add(new WordleBenchmark("WordleAIAnalyser.getUnsolvedWords/" + name, 1,
+            () -> analyser.getUnsolvedWords().size()));
+        suite.add(new WordleBenchmark("WordleAIAnalyser.getGuessLetterFrequency/" + name, 1,
+            () -> analyser.getGuessLetterFrequency()[0]));
+        suite.add(new WordleBenchmark("WordleAIAnalyser.getNumGuessesFrequency/" + name, 1,
+            () -> analyser.getNumGuessesFrequency()[0]));
+        suite.add(new WordleBenchmark("WordleAIAnalyser.makeHistogram/" + name, 1,
+            () -> analyser.makeHistogram(1).length()));
+    }
+    
+    /**
+     * Calls the operation for about iterationMillis milliseconds and returns the number of calls.
+     */
+    private long iterate(long iterationMillis)
+    {
+        long end = System.nanoTime() + iterationMillis * 1000000;
+        long calls = 0;
+        long result = 0;
+        do {
+            result += operation.getAsLong();
+            calls++;
+        } while (System.nanoTime() < end);
+        sink += result;
+        return calls;
+    }
+    
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the JVM cannot measure it.
+     */
+    private static long allocatedBytes()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled())
+                return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+    
+    private static long gcCount()
+    {
+        long count = 0;
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+    
+    private static long gcMillis()
+    {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans())
+            millis += Math.max(0, collector.getCollectionTime());
+        return millis;
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache, safe to share between threads, from a history of guesses and
+ * results to the candidate set it leaves (see WordleCandidateIndex).
+ * 
+ * The candidates left by a history do not depend on the order of the guesses or on
+ * repeated guesses, so a history is cached under a canonical key: its distinct
+ * (guess, result) pairs, sorted. A history that is not cached is worked out from
+ * its parent, the history without the pair the client added last, which is looked
+ * up (or worked out) the same way. A client playing a game sends each history
+ * after its parent, so a deeper history only costs one filter.
+ * 
+ * When the cache is full the oldest entries are removed first.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleCandidateCache
+{
+    private WordleDictionary dictionary;
+    private int maxEntries;
+    private ConcurrentHashMap<String, long[]> entries;
+    // Keys in the order they were added, for removing the oldest
+    private ConcurrentLinkedQueue<String> order;
+    private LongAdder hits;
+    private LongAdder misses;
+    
+    /**
+     * Constructs an empty cache over the words of dictionary that holds at most maxEntries candidate sets.
+     */
+    public WordleCandidateCache(WordleDictionary dictionary, int maxEntries)
+    {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("A cache must hold at least 1 entry: " + maxEntries);
+        this.dictionary = dictionary;
+        this.maxEntries = maxEntries;
+        entries = new ConcurrentHashMap<>();
+        order = new ConcurrentLinkedQueue<>();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+    
+    /**
+     * Returns a new candidate set of the words with the given length that are consistent
+     * with every guess and its result. guesses and results must have the same size,
+     * each guess must have the given length and only lowercase letters, and each
+     * result must be a result of WordleGame.guessWord.
+     */
+    public long[] getCandidates(int length, List<String> guesses, List<String> results)
+    {
+        if (guesses.size() != results.size())
+            throw new IllegalArgumentException(guesses.size() + " guesses but " + results.size() + " results");
+        String[] history = new String[guesses.size()];
+        for (int i = 0; i < history.length; i++)
+            history[i] = guesses.get(i) + "=" + results.get(i);
+        
+        long[] candidates = entries.get(key(length, history, history.length));
+        if (candidates != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            candidates = lookup(dictionary.getCandidateIndex(length), length, history, history.length);
+        }
+        return candidates.clone();
+    }
+    
+    /**
+     * Returns the number of getCandidates calls whose history was cached.
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+    
+    /**
+     * Returns the number of getCandidates calls whose history was not cached.
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+    
+    /**
+     * Returns the fraction of getCandidates calls whose history was cached, or 0 if there were none.
+     */
+    public double getHitRate()
+    {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+    
+    /**
+     * Returns the number of candidate sets in the cache.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+    
+    /**
+     * Returns the candidates left by the first depth pairs of a history, in the client's order.
+     * The result is shared with the cache and must not be changed.
+     */
+    private long[] lookup(WordleCandidateIndex index, int length, String[] history, int depth)
+    {
+        if (depth == 0)
+            return index.allCandidates();
+        String key = key(length, history, depth);
+        long[] candidates = entries.get(key);
+        if (candidates != null)
+            return candidates;
+        // A repeated pair leaves the same candidates as the parent
+        if (Arrays.asList(history).subList(0, depth - 1).contains(history[depth - 1]))
+            return lookup(index, length, history, depth - 1);
+        
+        candidates = lookup(index, length, history, depth - 1).clone();
+        String pair = history[depth - 1];
+        int split = pair.indexOf('=');
+        index.filter(candidates, pair.substring(0, split), WordleGame.encodeResult(pair.substring(split + 1)));
+        
+        if (entries.putIfAbsent(key, candidates) == null) {
+            order.add(key);
+            while (entries.size() > maxEntries) {
+                String oldest = order.poll();
+                if (oldest == null)
+                    break;
+                entries.remove(oldest);
+            }
+        }
+        return candidates;
+    }
+    
+    /**
+     * Returns the canonical key of the first depth pairs of a history: its distinct pairs, sorted.
+     */
+    private static String key(int length, String[] history, int depth)
+    {
+        StringBuilder key = new StringBuilder().append(length);
+        for (String pair: new TreeSet<>(Arrays.asList(history).subList(0, depth)))
+            key.append(',').append(pair);
+        return key.toString();
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.*;
+
+/**
+ * A bitset index over the sorted words of one length in a WordleDictionary,
+ * used by WordleAI to find consistent guesses quickly.
+ * 
+ * A candidate set is a long[] with bit i set if word i (in lexicographic order)
+ * is still possible. For each position and letter the index has the set of words
+ * with that letter at that position, and for each letter the set of words
+ * containing it, so filtering by a guess and its feedback code takes a few
+ * AND and AND NOT operations per letter.
+ * 
+ * Words are assumed to contain only lowercase letters ('a'-'z').
+ * 
+ * The index is always on the heap, even over the words of an off-heap dictionary.
+ * For words of length L it holds about 26 * (L + 1) / 8 + 12 bytes per word (the
+ * bitsets, letter masks and packed words), plus L bytes per word for the
+ * WordleBatchScorer once a strategy asks for it; getHeapBytes gives the exact
+ * figure, and the WordleCandidateIndex.build benchmark of WordleBenchmark measures it. For 5-letter words that is about
+ * 32 bytes per word, against 40 or more for each word as a String.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleCandidateIndex
+{
+    private int wordLength;
+    // The words, which may be read from a WordleOffHeapWords as they are asked for.
+    private List<String> words;
+    // WordleGame.letterMask of each word.
+    private int[] letterMasks;
+    // Each word packed by WordlePackedWord, or null if the words are too long to pack.
+    private long[] packedWords;
+    // Bit i of atPosition[position * 26 + letter] is set if words[i] has letter at position.
+    private long[][] atPosition;
+    // Bit i of containing[letter] is set if words[i] contains letter.
+    private long[][] containing;
+    // Every word in the index.
+    private long[] all;
+    // The words in columns, for scoring a guess against many of them at once, built when first asked for.
+    private volatile WordleBatchScorer scorer;
+    
+    /**
+     * Builds an index over words, which must all have length wordLength
+     * and be sorted without duplicates.
+     */
+    public WordleCandidateIndex(int wordLength, String[] words)
+    {
+        this(wordLength, Arrays.asList(words));
+    }
+    
+    /**
+     * Builds an index over words, which must all have length wordLength
+     * and be sorted without duplicates. Each word is only read once, while
+     * the index is built, except when it is asked for by getWord.
+     */
+    public WordleCandidateIndex(int wordLength, List<String> words)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        
+        int numWords = words.size();
+        int numLongs = (numWords + 63) >>> 6;
+        atPosition = new long[wordLength * 26][numLongs];
+        containing = new long[26][numLongs];
+        all = new long[numLongs];
+        letterMasks = new int[numWords];
+        if (wordLength <= WordlePackedWord.MAX_LENGTH)
+            packedWords = new long[numWords];
+        
+        for (int i = 0; i < numWords; i++) {
+            String word = words.get(i);
+            letterMasks[i] = WordleGame.letterMask(word);
+            if (packedWords != null && WordlePackedWord.canPack(word))
+                packedWords[i] = WordlePackedWord.pack(word);
+            else
+                packedWords = null;
+            int index = i >>> 6;
+            long bit = 1L << i;
+            all[index] |= bit;
+            for (int position = 0; position < wordLength; position++) {
+                int letter = word.charAt(position) - 'a';
+                atPosition[position * 26 + letter][index] |= bit;
+                containing[letter][index] |= bit;
+            }
+        }
+    }
+    
+    /**
+     * Returns a WordleBatchScorer over the words of this index, with the same ids.
+     */
+    public WordleBatchScorer getBatchScorer()
+    {
+        WordleBatchScorer batchScorer = scorer;
+        if (batchScorer == null) {
+            synchronized (this) {
+                if (scorer == null) {
+                    scorer = packedWords != null ? new WordleBatchScorer(wordLength, words, letterMasks, packedWords)
+                                                 : new WordleBatchScorer(wordLength, words);
+                }
+                batchScorer = scorer;
+            }
+        }
+        return batchScorer;
+    }
+    
+    /**
+     * Returns the number of bytes of heap held by the index's arrays, including the
+     * WordleBatchScorer if it has been built, but not the words themselves.
+     */
+    public long getHeapBytes()
+    {
+        long bytes = 8L * all.length * (atPosition.length + containing.length + 1);
+        bytes += 4L * letterMasks.length;
+        if (packedWords != null)
+            bytes += 8L * packedWords.length;
+        WordleBatchScorer batchScorer = scorer;
+        if (batchScorer != null)
+            bytes += batchScorer.getColumnBytes();
+        return bytes;
+    }
+    
+    /**
+     * Returns the word length of this index.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of words in this index.
+     */
+    public int size()
+    {
+        return words.size();
+    }
+    
+    /**
+     * Returns the word with the given id. Ids are in lexicographic order.
+     */
+    public String getWord(int id)
+    {
+        return words.get(id);
+    }
+    
+    /**
+     * Returns the word with the given id packed by WordlePackedWord.
+     * Only words up to WordlePackedWord.MAX_LENGTH letters are packed.
+     */
+    public long getPackedWord(int id)
+    {
+        if (packedWords == null)
+            throw new IllegalStateException("Words of length " + wordLength + " are too long to pack");
+        return packedWords[id];
+    }
+    
+    /**
+     * Returns WordleGame.letterMask of the word with the given id.
+     */
+    public int getLetterMask(int id)
+    {
+        return letterMasks[id];
+    }
+    
+    /**
+     * Returns the feedback code that guessing the word with id guess would get
+     * if the word with id secret was the secret word.
+     */
+    public long score(int guess, int secret)
+    {
+        if (packedWords != null)
+            return WordlePackedWord.score(packedWords[guess], packedWords[secret], letterMasks[secret]);
+        return WordleGame.score(words.get(guess), words.get(secret), letterMasks[secret]);
+    }
+    
+    /**
+     * Returns the ids in secrets other than guess, split into groups that would all get
+     * the same feedback code from guess. The groups are in the order their first secret
+     * appears in secrets, and each keeps the order of secrets. These are the candidate
+     * sets that guessing guess leaves, one for each feedback it could get.
+     */
+    public ArrayList<int[]> partition(int guess, int[] secrets)
+    {
+        long[] codes = new long[secrets.length];
+        getBatchScorer().score(words.get(guess), secrets, secrets.length, codes);
+        HashMap<Long, Integer> sizes = new HashMap<>();
+        for (int i = 0; i < secrets.length; i++) {
+            if (secrets[i] != guess)
+                sizes.merge(codes[i], 1, Integer::sum);
+        }
+        
+        LinkedHashMap<Long, int[]> groups = new LinkedHashMap<>();
+        HashMap<Long, Integer> filled = new HashMap<>();
+        for (int i = 0; i < secrets.length; i++) {
+            if (secrets[i] == guess)
+                continue;
+            int[] group = groups.computeIfAbsent(codes[i], code -> new int[sizes.get(code)]);
+            group[filled.merge(codes[i], 1, Integer::sum) - 1] = secrets[i];
+        }
+        return new ArrayList<>(groups.values());
+    }
+    
+    /**
+     * Returns the id of word, or -1 if it is not in this index.
+     */
+    public int indexOf(String word)
+    {
+        int id = WordleOffHeapWords.binarySearch(words, word);
+        return id >= 0 ? id : -1;
+    }
+    
+    /**
+     * Returns a new candidate set containing every word.
+     */
+    public long[] allCandidates()
+    {
+        return all.clone();
+    }
+    
+    /**
+     * Removes every word from candidates that is not consistent with guess
+     * having got the feedback code (see WordleGame.guessCode).
+     * This keeps exactly the words for which WordleAI.isConsistent would return true.
+     */
+    public void filter(long[] candidates, String guess, long code)
+    {
+        filter(candidates, guess, code, 0, candidates.length);
+    }
+    
+    /**
+     * Filters like filter(candidates, guess, code), but only the words with ids
+     * from 64 * from up to (not including) 64 * to; the other ids are left as they are.
+     */
+    public void filter(long[] candidates, String guess, long code, int from, int to)
+    {
+        for (int position = 0; position < wordLength; position++) {
+            int letter = guess.charAt(position) - 'a';
+            int digit = (int) (code % 3);
+            code /= 3;
+            
+            switch (digit) {
+                case WordleGame.CORRECT:
+                    and(candidates, atPosition[position * 26 + letter], from, to);
+                    break;
+                case WordleGame.PRESENT:
+                    andNot(candidates, atPosition[position * 26 + letter], from, to);
+                    and(candidates, containing[letter], from, to);
+                    break;
+                default:
+                    andNot(candidates, containing[letter], from, to);
+            }
+        }
+    }
+    
+    /**
+     * Returns the smallest id in candidates that is at least from,
+     * or -1 if there is none.
+     */
+    public static int nextCandidate(long[] candidates, int from)
+    {
+        int index = from >>> 6;
+        if (index >= candidates.length)
+            return -1;
+        long bits = candidates[index] & (-1L << from);
+        while (true) {
+            if (bits != 0)
+                return (index << 6) + Long.numberOfTrailingZeros(bits);
+            if (++index == candidates.length)
+                return -1;
+            bits = candidates[index];
+        }
+    }
+    
+    /**
+     * Returns true if id is in candidates.
+     */
+    public static boolean contains(long[] candidates, int id)
+    {
+        return (candidates[id >>> 6] & (1L << id)) != 0;
+    }
+    
+    /**
+     * Returns the ids in candidates, in order.
+     */
+    public static int[] toIds(long[] candidates)
+    {
+        int[] ids = new int[count(candidates)];
+        int id = nextCandidate(candidates, 0);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = id;
+            id = nextCandidate(candidates, id + 1);
+        }
+        return ids;
+    }
+    
+    /**
+     * Returns the number of ids in candidates.
+     */
+    public static int count(long[] candidates)
+    {
+        int count = 0;
+        for (long bits: candidates)
+            count += Long.bitCount(bits);
+        return count;
+    }
+    
+    private static void and(long[] candidates, long[] set, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+            candidates[i] &= set[i];
+    }
+    
+    private static void andNot(long[] candidates, long[] set, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+            candidates[i] &= ~set[i];
+    }
+}
@@ -0,0 +1,288 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The whole game tree that WordleAI.findWord plays for one word length of a dictionary.
+ * 
+ * findWord only depends on the feedback it has seen, so every game it plays is a
+ * path down one tree. Each node is a guess, and each edge out of a node is a
+ * feedback code for that guess. The compiler builds the tree in one pass:
+ * a node starts with every secret that can reach it, guesses the smallest of
+ * them (the word findWord would guess), and splits the rest by their feedback code.
+ * 
+ * A compiled tree can be saved to a file and loaded on later runs, and
+ * findWord(WordleGame) plays a game by walking it.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleDecisionTree
+{
+    // "WDT1"
+    private static final int MAGIC = 0x57445431;
+    
+    private int wordLength;
+    private List<String> words;
+    private long key;
+    // The id of the word guessed at each node. Node 0 is the first guess.
+    private int[] guessIds;
+    // The edges out of node n are edgeStarts[n] to edgeStarts[n + 1] - 1, sorted by code.
+    private int[] edgeStarts;
+    private long[] edgeCodes;
+    private int[] edgeTargets;
+    
+    private WordleDecisionTree(int wordLength, List<String> words, long key,
+                               int[] guessIds, int[] edgeStarts, long[] edgeCodes, int[] edgeTargets)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        this.key = key;
+        this.guessIds = guessIds;
+        this.edgeStarts = edgeStarts;
+        this.edgeCodes = edgeCodes;
+        this.edgeTargets = edgeTargets;
+    }
+    
+    /**
+     * Builds the tree of findWord for all words in the dictionary with the given length.
+     */
+    public static WordleDecisionTree compile(WordleDictionary dictionary, int wordLength)
+    {
+        List<String> words = dictionary.getSortedWordsWithLength(wordLength);
+        WordleBatchScorer scorer = dictionary.getCandidateIndex(wordLength).getBatchScorer();
+        long[] secretCodes = new long[words.size()];
+        long solved = WordleGame.allCorrect(wordLength);
+        
+        ArrayList<Integer> guessIds = new ArrayList<>();
+        ArrayList<Integer> edgeStarts = new ArrayList<>();
+        ArrayList<Long> edgeCodes = new ArrayList<>();
+        ArrayList<Integer> edgeTargets = new ArrayList<>();
+        
+        // Nodes are numbered in the order they are created, breadth first.
+        // pending.get(n) holds the ids of the secrets that reach node n, in order.
+        ArrayList<int[]> pending = new ArrayList<>();
+        ArrayList<Integer> depths = new ArrayList<>();
+        if (!words.isEmpty()) {
+            int[] all = new int[words.size()];
+            for (int i = 0; i < all.length; i++)
+                all[i] = i;
+            pending.add(all);
+            depths.add(1);
+        }
+        
+        for (int node = 0; node < pending.size(); node++) {
+            int[] secrets = pending.get(node);
+            pending.set(node, null);
+            int guess = secrets[0];
+            guessIds.add(guess);
+            edgeStarts.add(edgeCodes.size());
+            
+            // The 6th guess is the last, so its node has no children
+            if (depths.get(node) == 6)
+                continue;
+            
+            TreeMap<Long, ArrayList<Integer>> parts = new TreeMap<>();
+            scorer.score(words.get(guess), secrets, secrets.length, secretCodes);
+            for (int i = 0; i < secrets.length; i++) {
+                if (secretCodes[i] != solved)
+                    parts.computeIfAbsent(secretCodes[i], k -> new ArrayList<>()).add(secrets[i]);
+            }
+            
+            for (Map.Entry<Long, ArrayList<Integer>> part: parts.entrySet()) {
+                edgeCodes.add(part.getKey());
+                edgeTargets.add(pending.size());
+                pending.add(toArray(part.getValue()));
+                depths.add(depths.get(node) + 1);
+            }
+        }
+        edgeStarts.add(edgeCodes.size());
+        
+        long[] codes = new long[edgeCodes.size()];
+        for (int i = 0; i < codes.length; i++)
+            codes[i] = edgeCodes.get(i);
+        return new WordleDecisionTree(wordLength, words, dictionary.getHash(wordLength),
+            toArray(guessIds), toArray(edgeStarts), codes, toArray(edgeTargets));
+    }
+    
+    /**
+     * Returns the tree for all words in the dictionary with the given length,
+     * using the cache in FeedbackMatrix.DEFAULT_CACHE_DIRECTORY.
+     */
+    public static WordleDecisionTree load(WordleDictionary dictionary, int wordLength)
+    {
+        return load(dictionary, wordLength, new File(FeedbackMatrix.DEFAULT_CACHE_DIRECTORY));
+    }
+    
+    /**
+     * Returns the tree for all words in the dictionary with the given length.
+     * 
+     * If cacheDirectory holds a tree for exactly these words it is read from there.
+     * Otherwise the tree is compiled and saved there for next time. If the cache
+     * cannot be read or written, the tree is still returned, just without caching.
+     */
+    public static WordleDecisionTree load(WordleDictionary dictionary, int wordLength, File cacheDirectory)
+    {
+        long key = dictionary.getHash(wordLength);
+        File cacheFile = new File(cacheDirectory, String.format("tree-%d-%016x.bin", wordLength, key));
+        
+        if (cacheFile.isFile()) {
+            try {
+                WordleDecisionTree tree = read(cacheFile, dictionary, wordLength, key);
+                if (tree != null)
+                    return tree;
+            } catch (IOException e) {
+                System.out.println("Could not read the decision tree cache: " + cacheFile);
+                e.printStackTrace();
+            }
+        }
+        
+        WordleDecisionTree tree = compile(dictionary, wordLength);
+        try {
+            cacheDirectory.mkdirs();
+            tree.save(cacheFile);
+        } catch (IOException e) {
+            System.out.println("Could not write the decision tree cache: " + cacheFile);
+            e.printStackTrace();
+        }
+        return tree;
+    }
+    
+    /**
+     * Writes this tree to file. The file is written next to its final location
+     * and then moved into place, so a partly written cache is never loaded.
+     */
+    public void save(File file) throws IOException
+    {
+        File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(wordLength);
+            out.writeInt(words.size());
+            out.writeLong(key);
+            out.writeInt(guessIds.length);
+            out.writeInt(edgeCodes.length);
+            for (int guess: guessIds)
+                out.writeInt(guess);
+            for (int start: edgeStarts)
+                out.writeInt(start);
+            for (long code: edgeCodes)
+                out.writeLong(code);
+            for (int target: edgeTargets)
+                out.writeInt(target);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Returns the word length of this tree.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of nodes (distinct guess positions) in this tree.
+     */
+    public int getNumNodes()
+    {
+        return guessIds.length;
+    }
+    
+    /**
+     * Plays the game by walking the tree and returns the same guesses as
+     * WordleAI.findWord would, or null if the secret word could not be found.
+     */
+    public ArrayList<String> findWord(WordleGame game)
+    {
+        if (game.getWordLength() != wordLength)
+            throw new IllegalArgumentException("Tree has word length " + wordLength
+                + " but the game has word length " + game.getWordLength());
+        
+        ArrayList<String> guessedWords = new ArrayList<>();
+        long solved = WordleGame.allCorrect(wordLength);
+        int node = guessIds.length > 0 ? 0 : -1;
+        
+        while (node >= 0) {
+            String currentWord = words.get(guessIds[node]);
+            long code = game.guessCode(currentWord);
+            guessedWords.add(currentWord);
+            
+            if (code == solved)
+                return guessedWords;
+            if (game.getNumGuesses() == 6)
+                break;
+            node = child(node, code);
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Returns the guesses findWord makes for every word of this tree's length,
+     * indexed by the word's position in the dictionary's sorted words, with null
+     * for words that are not solved. This is a single walk over the tree.
+     */
+    public ArrayList<ArrayList<String>> solveAll()
+    {
+        ArrayList<ArrayList<String>> solutions = new ArrayList<>(Collections.nCopies(words.size(), null));
+        if (guessIds.length > 0)
+            solveAll(0, new ArrayList<>(), solutions);
+        return solutions;
+    }
+    
+    private void solveAll(int node, ArrayList<String> path, ArrayList<ArrayList<String>> solutions)
+    {
+        // The guess at a node solves the secret equal to it
+        path.add(words.get(guessIds[node]));
+        solutions.set(guessIds[node], new ArrayList<>(path));
+        for (int edge = edgeStarts[node]; edge < edgeStarts[node + 1]; edge++)
+            solveAll(edgeTargets[edge], path, solutions);
+        path.remove(path.size() - 1);
+    }
+    
+    /**
+     * Returns the node reached from node by the feedback code, or -1 if there is none.
+     */
+    private int child(int node, long code)
+    {
+        int edge = Arrays.binarySearch(edgeCodes, edgeStarts[node], edgeStarts[node + 1], code);
+        return edge >= 0 ? edgeTargets[edge] : -1;
+    }
+    
+    /**
+     * Reads a cache file, or returns null if it was not made for these words.
+     */
+    private static WordleDecisionTree read(File file, WordleDictionary dictionary, int wordLength, long key) throws IOException
+    {
+        List<String> words = dictionary.getSortedWordsWithLength(wordLength);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != wordLength || in.readInt() != words.size() || in.readLong() != key)
+                return null;
+            
+            int numNodes = in.readInt();
+            int numEdges = in.readInt();
+            int[] guessIds = new int[numNodes];
+            int[] edgeStarts = new int[numNodes + 1];
+            long[] edgeCodes = new long[numEdges];
+            int[] edgeTargets = new int[numEdges];
+            for (int i = 0; i < numNodes; i++)
+                guessIds[i] = in.readInt();
+            for (int i = 0; i <= numNodes; i++)
+                edgeStarts[i] = in.readInt();
+            for (int i = 0; i < numEdges; i++)
+                edgeCodes[i] = in.readLong();
+            for (int i = 0; i < numEdges; i++)
+                edgeTargets[i] = in.readInt();
+            return new WordleDecisionTree(wordLength, words, key, guessIds, edgeStarts, edgeCodes, edgeTargets);
+        }
+    }
+    
+    private static int[] toArray(List<Integer> list)
+    {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++)
+            array[i] = list.get(i);
+        return array;
+    }
+}
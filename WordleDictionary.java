@@ -1,39 +1,103 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 /**
  * Manages a dictionary of words for use in Wordle.
  * Modifed slightly from Project 1.
  * Now has a new constructor.
  * 
- * !!! DO NOT MODIFY THIS CLASS !!!
- *
+ * The words are indexed by length when the dictionary is constructed, so later
+ * changes to the list of words passed to the constructor are not seen.
+ * 
+ * An off-heap dictionary keeps its words in a WordleOffHeapWords instead of in
+ * Strings, for word lists too big to keep on the heap. It answers every method
+ * the same way, making Strings only for the words it returns.
+ * 
  * @author Max Ward
  */
 public class WordleDictionary
 {
     // Contains all the words in the dictionary.
     private ArrayList<String> words;
-
+    // The words of each length, in dictionary order.
+    private HashMap<Integer, ArrayList<String>> wordsByLength;
+    // The words of each length, sorted and without duplicates.
+    private HashMap<Integer, String[]> sortedWordsByLength;
+    // Bitset indexes used by WordleAI, built the first time each length is asked for.
+    private ConcurrentHashMap<Integer, WordleCandidateIndex> candidateIndexes;
+    // Tries used for pattern queries, built the first time each length is asked for.
+    private ConcurrentHashMap<Integer, WordlePatternIndex> patternIndexes;
+    // Ids for the words of every length, built the first time it is asked for.
+    private WordleWordTable wordTable;
+    // The words, if this dictionary is off-heap; words and the maps above are then not used.
+    private WordleOffHeapWords offHeapWords;
+    
     /**
      * Constructs a WordleDictionary from a single parameter which gives a String
      * containing the path to the file of words to use.
+     * 
+     * The file can also be a snapshot written by saveSnapshot, which is much faster to open.
      */
     public WordleDictionary(String wordsFilePath)
+    {
+        this(wordsFilePath, false);
+    }
+    
+    /**
+     * Constructs a WordleDictionary from the file of words at wordsFilePath, off the heap if
+     * offHeap is true. A snapshot written by saveSnapshot is then mapped into memory rather
+     * than read, so every process opening the same snapshot shares one copy of the words.
+     * A word file is read and indexed as usual, then copied off the heap.
+     */
+    public WordleDictionary(String wordsFilePath, boolean offHeap)
     {
         words = new ArrayList<>();
         File wordsFile = new File(wordsFilePath);
         try {
-            Scanner fileScanner = new Scanner(wordsFile);
-            while (fileScanner.hasNext()) {
-                words.add(fileScanner.next());
+            if (WordleDictionaryLoader.isSnapshot(wordsFile)) {
+                if (offHeap) {
+                    offHeapWords = WordleOffHeapWords.map(wordsFile);
+                    words = null;
+                    candidateIndexes = new ConcurrentHashMap<>();
+                    patternIndexes = new ConcurrentHashMap<>();
+                } else {
+                    readSnapshot(wordsFile);
+                }
+                return;
             }
-            fileScanner.close();
-        } catch (FileNotFoundException e) {
+            words = WordleDictionaryLoader.readWords(wordsFile);
+        } catch (FileNotFoundException | NoSuchFileException e) {
             System.out.println("Could not find the word file: " + wordsFilePath);
             e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Could not read the word file: " + wordsFilePath);
+            e.printStackTrace();
+        }
+        buildIndex();
+        if (offHeap) {
+            offHeapWords = WordleOffHeapWords.build(sortedWordsByLength, wordsByLength);
+            words = null;
+            wordsByLength = null;
+            sortedWordsByLength = null;
         }
     }
     
+    /**
+     * Constructs an off-heap dictionary of the words in offHeapWords.
+     */
+    public WordleDictionary(WordleOffHeapWords offHeapWords)
+    {
+        this.offHeapWords = offHeapWords;
+        candidateIndexes = new ConcurrentHashMap<>();
+        patternIndexes = new ConcurrentHashMap<>();
+    }
+    
     /**
      * Default constructor for use in BlueJ that uses the default path to "words.txt".
      */
@@ -49,20 +113,166 @@ public class WordleDictionary
     public WordleDictionary(ArrayList<String> words)
     {
         this.words = words;
+        buildIndex();
+    }
+    
+    /**
+     * Returns the lengths of the words in the dictionary, from shortest to longest.
+     */
+    public ArrayList<Integer> getWordLengths()
+    {
+        if (offHeapWords != null)
+            return offHeapWords.getWordLengths();
+        ArrayList<Integer> lengths = new ArrayList<>(wordsByLength.keySet());
+        Collections.sort(lengths);
+        return lengths;
+    }
+    
+    /**
+     * Returns the number of words in the dictionary with a specified length,
+     * counting duplicates like getWordsWithLength does, without copying them.
+     */
+    public int getNumWordsWithLength(int length)
+    {
+        if (offHeapWords != null)
+            return offHeapWords.getNumWords(length);
+        return wordsWithLength(length).size();
     }
     
     /**
      * Returns an ArrayList containg all the words in the dictionary with a specified length (in number of letters).
+     * 
+     * The list is a copy; use getWordsWithLengthView to go through the words without copying them.
      */
     public ArrayList<String> getWordsWithLength(int length)
     {
-        ArrayList<String> wordsWithLength = new ArrayList<>();
-        for (String word : this.words) {
-            if (word.length() == length) {
-                wordsWithLength.add(word);
+        if (offHeapWords != null)
+            return new ArrayList<>(offHeapWords.getWords(length));
+        return new ArrayList<>(wordsWithLength(length));
+    }
+    
+    /**
+     * Returns a read-only list of the words in the dictionary with a specified length,
+     * in dictionary order and counting duplicates like getWordsWithLength, without
+     * copying them. An off-heap dictionary makes each word only when it is asked for,
+     * so going through the list never holds more than one of them on the heap.
+     */
+    public List<String> getWordsWithLengthView(int length)
+    {
+        if (offHeapWords != null)
+            return offHeapWords.getWords(length);
+        return Collections.unmodifiableList(wordsWithLength(length));
+    }
+    
+    /**
+     * Returns a read-only list of the words in the dictionary with a specified length,
+     * in lexicographic order and without duplicates.
+     */
+    public List<String> getSortedWordsWithLength(int length)
+    {
+        if (offHeapWords != null)
+            return offHeapWords.getSortedWords(length);
+        return Collections.unmodifiableList(Arrays.asList(sortedWordsWithLength(length)));
+    }
+    
+    /**
+     * Returns a read-only list of the words in the dictionary with a specified length
+     * that are lexicographically between start and finish (both inclusive),
+     * in lexicographic order and without duplicates.
+     * 
+     * The range is found by binary search, so no words are copied.
+     */
+    public List<String> getSortedWordsBetween(int length, String start, String finish)
+    {
+        // The first word >= start and the first word > finish
+        int from = search(length, start);
+        from = from >= 0 ? from : -from - 1;
+        int to = search(length, finish);
+        to = to >= 0 ? to + 1 : -to - 1;
+        
+        if (to <= from)
+            return Collections.emptyList();
+        return getSortedWordsWithLength(length).subList(from, to);
+    }
+    
+    /**
+     * Returns the words in the dictionary with a specified length that are lexicographically
+     * between start and finish (both inclusive), in lexicographic order, counting
+     * duplicates like getWordsWithLength does.
+     * 
+     * If there are no duplicates of that length this is getSortedWordsBetween, found by binary search.
+     */
+    public List<String> getWordsBetween(int length, String start, String finish)
+    {
+        List<String> sorted = getSortedWordsBetween(length, start, finish);
+        if (getNumWordsWithLength(length) == getSortedWordsWithLength(length).size())
+            return sorted;
+        
+        ArrayList<String> between = new ArrayList<>();
+        for (String word: getWordsWithLengthView(length)) {
+            if (word.compareTo(start) >= 0 && word.compareTo(finish) <= 0)
+                between.add(word);
+        }
+        Collections.sort(between);
+        return between;
+    }
+    
+    /**
+     * Returns the WordleCandidateIndex of the words in the dictionary with a specified length.
+     * The index is built the first time it is asked for and shared after that.
+     */
+    public WordleCandidateIndex getCandidateIndex(int length)
+    {
+        return candidateIndexes.computeIfAbsent(length,
+            k -> offHeapWords != null ? new WordleCandidateIndex(length, offHeapWords.getSortedWords(length))
+                                      : new WordleCandidateIndex(length, sortedWordsWithLength(length)));
+    }
+    
+    /**
+     * Returns the WordlePatternIndex of the words in the dictionary with a specified length,
+     * for finding the words that fit a WordlePattern. The index is built the first time it
+     * is asked for and shared after that.
+     */
+    public WordlePatternIndex getPatternIndex(int length)
+    {
+        return patternIndexes.computeIfAbsent(length, k -> new WordlePatternIndex(length, getSortedWordsWithLength(length)));
+    }
+    
+    /**
+     * Returns a WordleWordTable giving an id to every word in the dictionary.
+     * The table is built the first time it is asked for and shared after that.
+     */
+    public synchronized WordleWordTable getWordTable()
+    {
+        if (wordTable == null) {
+            TreeSet<String> allWords = new TreeSet<>();
+            for (int length : getWordLengths()) {
+                allWords.addAll(getSortedWordsWithLength(length));
             }
+            wordTable = new WordleWordTable(allWords.toArray(new String[0]));
+        }
+        return wordTable;
+    }
+    
+    /**
+     * Returns a hash of the words in the dictionary with a specified length:
+     * the first 8 bytes of the SHA-256 of the length and the sorted words.
+     * Files made from those words, such as a FeedbackMatrix cache, are named after it.
+     */
+    public long getHash(int length)
+    {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Integer.toString(length).getBytes(StandardCharsets.UTF_8));
+            for (String word : getSortedWordsWithLength(length)) {
+                digest.update((byte) '\n');
+                digest.update(word.getBytes(StandardCharsets.UTF_8));
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
         }
-        return wordsWithLength;
     }
     
     /**
@@ -70,7 +280,115 @@ public class WordleDictionary
      */
     public String getRandomWord(int length)
     {
-        ArrayList<String> words = getWordsWithLength(length);
-        return words.get(new Random().nextInt(words.size()));
+        return getRandomWord(length, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Returns a word from the dictionary with a specified length selected with random,
+     * such as a seeded SplittableRandom for a word that can be drawn again.
+     * Every word is equally likely, counting duplicates.
+     */
+    public String getRandomWord(int length, RandomGenerator random)
+    {
+        if (offHeapWords != null) {
+            int numWords = offHeapWords.getNumWords(length);
+            return offHeapWords.getWord(length, offHeapWords.getSortedId(length, random.nextInt(numWords)));
+        }
+        ArrayList<String> words = wordsWithLength(length);
+        return words.get(random.nextInt(words.size()));
+    }
+    
+    /**
+     * Writes the dictionary, already indexed by length, to a snapshot file.
+     * Constructing a WordleDictionary from the snapshot gives the same dictionary.
+     */
+    public void saveSnapshot(String snapshotFilePath) throws IOException
+    {
+        if (offHeapWords != null) {
+            HashMap<Integer, String[]> sorted = new HashMap<>();
+            HashMap<Integer, ArrayList<String>> ordered = new HashMap<>();
+            for (int length : getWordLengths()) {
+                sorted.put(length, getSortedWordsWithLength(length).toArray(new String[0]));
+                ordered.put(length, getWordsWithLength(length));
+            }
+            WordleDictionaryLoader.writeSnapshot(new File(snapshotFilePath), sorted, ordered);
+            return;
+        }
+        WordleDictionaryLoader.writeSnapshot(new File(snapshotFilePath), sortedWordsByLength, wordsByLength);
+    }
+    
+    /**
+     * Returns true if the words of this dictionary are kept off the heap.
+     */
+    public boolean isOffHeap()
+    {
+        return offHeapWords != null;
+    }
+    
+    /**
+     * Groups the words by length, keeping dictionary order,
+     * and makes a sorted copy of each group without duplicates.
+     */
+    private void buildIndex()
+    {
+        wordsByLength = new HashMap<>();
+        for (String word : this.words) {
+            wordsByLength.computeIfAbsent(word.length(), k -> new ArrayList<>()).add(word);
+        }
+        
+        sortedWordsByLength = new HashMap<>();
+        for (Map.Entry<Integer, ArrayList<String>> entry : wordsByLength.entrySet()) {
+            String[] sorted = entry.getValue().toArray(new String[0]);
+            Arrays.parallelSort(sorted);
+            
+            // Remove duplicates, which are next to each other once sorted
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (unique == 0 || !sorted[i].equals(sorted[unique - 1]))
+                    sorted[unique++] = sorted[i];
+            }
+            sortedWordsByLength.put(entry.getKey(), Arrays.copyOf(sorted, unique));
+        }
+        
+        candidateIndexes = new ConcurrentHashMap<>();
+        patternIndexes = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Reads the index from a snapshot instead of building it.
+     */
+    private void readSnapshot(File snapshotFile) throws IOException
+    {
+        wordsByLength = new HashMap<>();
+        sortedWordsByLength = new HashMap<>();
+        WordleDictionaryLoader.readSnapshot(snapshotFile, sortedWordsByLength, wordsByLength);
+        for (ArrayList<String> wordsWithLength : wordsByLength.values()) {
+            words.addAll(wordsWithLength);
+        }
+        candidateIndexes = new ConcurrentHashMap<>();
+        patternIndexes = new ConcurrentHashMap<>();
+    }
+    
+    private ArrayList<String> wordsWithLength(int length)
+    {
+        ArrayList<String> wordsWithLength = wordsByLength.get(length);
+        return wordsWithLength != null ? wordsWithLength : new ArrayList<>();
+    }
+    
+    /**
+     * Returns the position of word among the sorted words of a specified length,
+     * as Arrays.binarySearch.
+     */
+    private int search(int length, String word)
+    {
+        if (offHeapWords != null)
+            return offHeapWords.search(length, word);
+        return Arrays.binarySearch(sortedWordsWithLength(length), word);
+    }
+    
+    private String[] sortedWordsWithLength(int length)
+    {
+        String[] sorted = sortedWordsByLength.get(length);
+        return sorted != null ? sorted : new String[0];
     }
 }
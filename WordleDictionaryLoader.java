@@ -0,0 +1,197 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Reads and writes the files that a WordleDictionary is made from.
+ * 
+ * A word file is memory-mapped and split into words at ASCII whitespace bytes,
+ * without any regular expressions. For a file whose whitespace is all ASCII,
+ * as in words.txt, this reads the same words as java.util.Scanner. Whitespace
+ * outside ASCII, such as U+2003, is kept inside a word, where Scanner would split at it.
+ * 
+ * A snapshot is a binary file holding a dictionary that has already been
+ * indexed: the magic number and the number of lengths, then for each length the
+ * sorted words with their letters packed together, then the dictionary order of
+ * the words as ids into the sorted words.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleDictionaryLoader
+{
+    // "WDS1"
+    static final int SNAPSHOT_MAGIC = 0x57445331;
+    // Word files are mapped at most this many bytes at a time
+    private static final int WINDOW_BYTES = 1 << 30;
+    
+    private WordleDictionaryLoader()
+    {
+        // Constructor is private because all methods are static
+    }
+    
+    /**
+     * Returns true if file is a dictionary snapshot rather than a word file.
+     * 
+     * A word file may start with the letters of the magic number, so the header must
+     * also have a number of lengths below 2^24. The first byte of that number is then
+     * 0, which never appears in a text file.
+     */
+    public static boolean isSnapshot(File file) throws IOException
+    {
+        if (file.length() < 8)
+            return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == SNAPSHOT_MAGIC && (in.readInt() >>> 24) == 0;
+        }
+    }
+    
+    /**
+     * Returns the whitespace-separated words in a word file, in order.
+     */
+    public static ArrayList<String> readWords(File file) throws IOException
+    {
+        ArrayList<String> words = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            byte[] token = new byte[64];
+            
+            while (position < size) {
+                long windowBytes = Math.min(WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowBytes);
+                boolean lastWindow = position + windowBytes == size;
+                int limit = (int) windowBytes;
+                int start = -1;
+                
+                for (int i = 0; i < limit; i++) {
+                    if (isWhitespace(window.get(i))) {
+                        if (start >= 0) {
+                            token = addWord(words, window, start, i, token);
+                            start = -1;
+                        }
+                    } else if (start < 0) {
+                        start = i;
+                    }
+                }
+                
+                if (start >= 0 && lastWindow) {
+                    addWord(words, window, start, limit, token);
+                    start = -1;
+                }
+                
+                // A word cut off by the end of the window is read again from the next window
+                if (start < 0)
+                    position += windowBytes;
+                else if (start > 0)
+                    position += start;
+                else
+                    throw new IOException("Word longer than " + WINDOW_BYTES + " bytes in " + file);
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * Writes a snapshot of a dictionary, given its sorted words and its words
+     * in dictionary order for each length.
+     */
+    public static void writeSnapshot(File file, Map<Integer, String[]> sortedWordsByLength,
+                                     Map<Integer, ? extends List<String>> wordsByLength) throws IOException
+    {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(sortedWordsByLength.size());
+            for (Map.Entry<Integer, String[]> entry : new TreeMap<>(sortedWordsByLength).entrySet()) {
+                int length = entry.getKey();
+                String[] sorted = entry.getValue();
+                int bytesPerLetter = 1;
+                for (String word : sorted) {
+                    for (int i = 0; i < length; i++) {
+                        if (word.charAt(i) > 0xff)
+                            bytesPerLetter = 2;
+                    }
+                }
+                
+                out.writeInt(length);
+                out.writeInt(bytesPerLetter);
+                out.writeInt(sorted.length);
+                for (String word : sorted) {
+                    for (int i = 0; i < length; i++) {
+                        if (bytesPerLetter == 1)
+                            out.writeByte(word.charAt(i));
+                        else
+                            out.writeChar(word.charAt(i));
+                    }
+                }
+                
+                List<String> ordered = wordsByLength.get(length);
+                out.writeInt(ordered.size());
+                for (String word : ordered)
+                    out.writeInt(Arrays.binarySearch(sorted, word));
+            }
+        }
+    }
+    
+    /**
+     * Reads a snapshot, putting the sorted words and the words in dictionary
+     * order for each length into the two maps.
+     */
+    public static void readSnapshot(File file, Map<Integer, String[]> sortedWordsByLength,
+                                    Map<Integer, ArrayList<String>> wordsByLength) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != SNAPSHOT_MAGIC)
+                throw new IOException("Not a dictionary snapshot: " + file);
+            
+            int numLengths = in.getInt();
+            for (int n = 0; n < numLengths; n++) {
+                int length = in.getInt();
+                int bytesPerLetter = in.getInt();
+                String[] sorted = new String[in.getInt()];
+                if (bytesPerLetter == 1) {
+                    byte[] letters = new byte[length];
+                    for (int i = 0; i < sorted.length; i++) {
+                        in.get(letters);
+                        sorted[i] = new String(letters, StandardCharsets.ISO_8859_1);
+                    }
+                } else {
+                    char[] letters = new char[length];
+                    for (int i = 0; i < sorted.length; i++) {
+                        for (int j = 0; j < length; j++)
+                            letters[j] = in.getChar();
+                        sorted[i] = new String(letters);
+                    }
+                }
+                
+                int numOrdered = in.getInt();
+                ArrayList<String> ordered = new ArrayList<>(numOrdered);
+                for (int i = 0; i < numOrdered; i++)
+                    ordered.add(sorted[in.getInt()]);
+                sortedWordsByLength.put(length, sorted);
+                wordsByLength.put(length, ordered);
+            }
+        }
+    }
+    
+    private static byte[] addWord(ArrayList<String> words, ByteBuffer window, int start, int end, byte[] token)
+    {
+        int length = end - start;
+        if (length > token.length)
+            token = new byte[Math.max(length, token.length * 2)];
+        window.get(start, token, 0, length);
+        words.add(new String(token, 0, length, StandardCharsets.UTF_8));
+        return token;
+    }
+    
+    /**
+     * Returns true for the bytes that Character.isWhitespace is true for.
+     */
+    private static boolean isWhitespace(byte b)
+    {
+        return b == ' ' || (b >= 0x09 && b <= 0x0d) || (b >= 0x1c && b <= 0x1f);
+    }
+}
@@ -0,0 +1,204 @@
+import static org.junit.Assert.*;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.util.*;
+
+/**
+ * The test class WordleDictionaryTest.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleDictionaryTest
+{
+    
+    @Test
+    public void testGetWordsWithLength()
+    {
+        String[] words = {"cat", "act", "axe", "cat", "log", "at"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        
+        assertEquals(new String[] {"cat", "act", "axe", "cat", "log"}, dict.getWordsWithLength(3).toArray());
+        assertEquals(new String[] {"act", "axe", "cat", "log"}, dict.getSortedWordsWithLength(3).toArray());
+        assertEquals(0, dict.getSortedWordsWithLength(7).size());
+    }
+    
+    @Test
+    public void testGetSortedWordsBetween()
+    {
+        String[] words = {"cat", "bet", "act", "bat"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        
+        assertEquals(new String[] {"bat", "bet"}, dict.getSortedWordsBetween(3, "baa", "caa").toArray());
+        assertEquals(new String[] {"act", "bat"}, dict.getSortedWordsBetween(3, "act", "bat").toArray());
+        assertEquals(0, dict.getSortedWordsBetween(3, "caa", "baa").size());
+        assertEquals(0, dict.getSortedWordsBetween(3, "zzz", "zzz").size());
+    }
+    
+    @Test
+    public void testGetWordsBetweenCountsDuplicates()
+    {
+        String[] words = {"cat", "bet", "act", "bat", "bet"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        
+        assertEquals(new String[] {"bat", "bet", "bet"}, dict.getWordsBetween(3, "baa", "caa").toArray());
+        assertEquals(new String[] {"act", "bat"}, dict.getWordsBetween(3, "act", "bat").toArray());
+        
+        // Both sweeps run a duplicated word once for each time it is in the dictionary
+        WordleAIAnalyser all = new WordleAIAnalyser(dict, 3);
+        WordleAIAnalyser between = new WordleAIAnalyser(dict, 3);
+        all.runExperimentsWithAllWords();
+        between.runExperimentsWithWordsBetween("a", "zzz");
+        assertArrayEquals(all.getNumGuessesFrequency(), between.getNumGuessesFrequency());
+    }
+    
+    @Test
+    public void testWordTable()
+    {
+        String[] words = {"cat", "at", "bat", "hello", "cat", "a", "extraordinarily"};
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(words)));
+        WordleWordTable table = dict.getWordTable();
+        assertSame(table, dict.getWordTable());
+        
+        assertEquals(6, table.size());
+        for (int id = 0; id < table.size(); id++) {
+            String word = table.getWord(id);
+            if (id > 0)
+                assertTrue(table.getWord(id - 1).compareTo(word) < 0);
+            assertEquals(id, table.getId(word));
+            assertEquals(WordleGame.letterMask(word), table.getLetterMask(id));
+            if (WordlePackedWord.canPack(word)) {
+                assertEquals(WordlePackedWord.pack(word), table.getPackedWord(id));
+                assertEquals(id, table.getId(table.getPackedWord(id)));
+            } else {
+                assertEquals(-1, table.getPackedWord(id));
+            }
+        }
+        assertEquals(-1, table.getId("dog"));
+        assertEquals(-1, table.getId(WordlePackedWord.pack("dog")));
+        assertEquals(-1, table.getId(WordlePackedWord.pack("ca")));
+    }
+    
+    @Test
+    public void testReadWordFile() throws IOException
+    {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.print("  cat\tact\r\n\nbat  at\fhello\u000bworld\ncat");
+        }
+        
+        WordleDictionary dict = new WordleDictionary(file.getPath());
+        assertEquals(new String[] {"cat", "act", "bat", "cat"}, dict.getWordsWithLength(3).toArray());
+        assertEquals(new String[] {"hello", "world"}, dict.getWordsWithLength(5).toArray());
+        assertEquals(new String[] {"at"}, dict.getWordsWithLength(2).toArray());
+        
+        // A word file that starts with the snapshot's magic letters is still a word file
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.print("WDS1\nhello\n");
+        }
+        assertFalse(WordleDictionaryLoader.isSnapshot(file));
+        assertEquals(new String[] {"WDS1"}, new WordleDictionary(file.getPath()).getWordsWithLength(4).toArray());
+    }
+    
+    @Test
+    public void testSnapshot() throws IOException
+    {
+        WordleDictionary dict = new WordleDictionary();
+        File snapshot = File.createTempFile("words", ".snapshot");
+        snapshot.deleteOnExit();
+        dict.saveSnapshot(snapshot.getPath());
+        
+        WordleDictionary reopened = new WordleDictionary(snapshot.getPath());
+        for (int length = 1; length <= 22; length++) {
+            assertEquals(dict.getWordsWithLength(length), reopened.getWordsWithLength(length));
+            assertEquals(dict.getSortedWordsWithLength(length), reopened.getSortedWordsWithLength(length));
+            assertEquals(dict.getHash(length), reopened.getHash(length));
+        }
+    }
+    
+    @Test
+    public void testOffHeap() throws IOException
+    {
+        WordleDictionary dict = new WordleDictionary();
+        File snapshot = File.createTempFile("words", ".snapshot");
+        snapshot.deleteOnExit();
+        dict.saveSnapshot(snapshot.getPath());
+        
+        WordleDictionary direct = new WordleDictionary("words.txt", true);
+        WordleDictionary mapped = new WordleDictionary(snapshot.getPath(), true);
+        assertTrue(direct.isOffHeap() && mapped.isOffHeap() && !dict.isOffHeap());
+        for (WordleDictionary offHeap : new WordleDictionary[] {direct, mapped}) {
+            assertEquals(dict.getWordLengths(), offHeap.getWordLengths());
+            for (int length = 1; length <= 22; length++) {
+                assertEquals(dict.getWordsWithLength(length), offHeap.getWordsWithLength(length));
+                assertEquals(dict.getWordsWithLength(length), offHeap.getWordsWithLengthView(length));
+                assertEquals(dict.getSortedWordsWithLength(length), offHeap.getSortedWordsWithLength(length));
+                assertEquals(dict.getNumWordsWithLength(length), offHeap.getNumWordsWithLength(length));
+                assertEquals(dict.getHash(length), offHeap.getHash(length));
+            }
+            assertEquals(dict.getSortedWordsBetween(5, "cab", "crane"), offHeap.getSortedWordsBetween(5, "cab", "crane"));
+            assertTrue(offHeap.getSortedWordsWithLength(5).contains(offHeap.getRandomWord(5)));
+            for (String word : new String[] {"hello", "world", "outer", "zebra"}) {
+                assertEquals(WordleAI.findWord(dict, new WordleGame(word)), WordleAI.findWord(offHeap, new WordleGame(word)));
+            }
+            WordleCandidateIndex index = offHeap.getCandidateIndex(5);
+            assertEquals(dict.getCandidateIndex(5).indexOf("hello"), index.indexOf("hello"));
+            assertEquals(-1, index.indexOf("zzzzz"));
+            assertEquals(-1, index.indexOf("hell"));
+            WordleResultStore store = new WordleResultStore(offHeap.getSortedWordsWithLength(5));
+            store.add("hello", Arrays.asList("zzzzz", "hello"));
+            assertEquals("hello", store.getWord(0));
+            assertEquals(Arrays.asList("zzzzz", "hello"), store.getGuesses(0));
+            WordleAIAnalyser analyser = new WordleAIAnalyser(offHeap, 4);
+            analyser.runExperimentsWithAllWords();
+            assertEquals(dict.getNumWordsWithLength(4), analyser.getStatistics().getNumExperiments());
+        }
+    }
+    
+    @Test
+    public void testPatternIndex()
+    {
+        WordleDictionary dict = new WordleDictionary();
+        WordlePatternIndex index = dict.getPatternIndex(5);
+        WordlePattern pattern = new WordlePattern(5).at(2, 'a').contains('e').notAt(4, 'e').excludes("rst");
+        ArrayList<String> expected = new ArrayList<>();
+        for (String word : dict.getSortedWordsWithLength(5)) {
+            if (word.charAt(2) == 'a' && word.contains("e") && word.charAt(4) != 'e' && !word.matches(".*[rst].*"))
+                expected.add(word);
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, index.findMatches(pattern));
+        assertEquals(expected.size(), index.countMatches(pattern));
+        assertEquals(expected.subList(0, 2), index.findMatches(pattern, 2));
+        assertEquals(expected.get(0), index.streamMatches(pattern).findFirst().get());
+        
+        // Every word fits a pattern without constraints
+        assertEquals(dict.getSortedWordsWithLength(4), dict.getPatternIndex(4).findMatches(new WordlePattern(4)));
+        assertEquals(dict.getSortedWordsWithLength(4).size(), dict.getPatternIndex(4).countMatches(new WordlePattern(4)));
+        assertEquals(0, index.countMatches(new WordlePattern(5).at(0, 'a').at(0, 'b')));
+        assertEquals(0, index.countMatches(new WordlePattern(4)));
+        
+        // A pattern made from feedback matches the same words as isConsistent
+        WordleGame game = new WordleGame("outer");
+        String[] guesses = {"crane", "moist"};
+        String[] results = {game.guessWord("crane"), game.guessWord("moist")};
+        WordlePattern feedback = new WordlePattern(5);
+        for (int i = 0; i < guesses.length; i++) {
+            feedback.addFeedback(guesses[i], results[i]);
+            ArrayList<String> consistent = new ArrayList<>();
+            for (String word : dict.getSortedWordsWithLength(5)) {
+                boolean isConsistent = true;
+                for (int j = 0; j <= i; j++)
+                    isConsistent &= WordleAI.isConsistent(guesses[j], results[j], word);
+                if (isConsistent)
+                    consistent.add(word);
+            }
+            int[] ids = index.findMatchIds(feedback);
+            assertEquals(consistent.size(), ids.length);
+            for (int j = 0; j < ids.length; j++)
+                assertEquals(consistent.get(j), dict.getSortedWordsWithLength(5).get(ids[j]));
+            assertEquals(consistent.size(), index.countMatches(feedback));
+        }
+    }
+}
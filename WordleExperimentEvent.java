@@ -0,0 +1,32 @@
+import jdk.jfr.*;
+
+/**
+ * A Java Flight Recorder event for one experiment run by a WordleAIAnalyser with metrics enabled.
+ * The event lasts as long as the experiment.
+ * 
+ * @author 22708346 AND 23614901
+ */
+@Name("wordle.Experiment")
+@Label("Wordle Experiment")
+@Category("Wordle")
+@Description("One secret word solved by the WordleAI")
+public class WordleExperimentEvent extends Event
+{
+    @Label("Secret Word")
+    public String word;
+    
+    @Label("Word Length")
+    public int wordLength;
+    
+    @Label("Solved")
+    public boolean solved;
+    
+    @Label("Guesses")
+    public int numGuesses;
+    
+    @Label("Consistency Checks")
+    public long consistencyChecks;
+    
+    @Label("Candidates Scanned")
+    public long candidatesScanned;
+}
@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Runs experiments as a pipeline: secret words from a source are solved by
+ * worker threads and the results are passed on to a set of WordleResultSinks.
+ * 
+ * Words are taken from the source in batches. The source is only read while fewer
+ * than maxBatchesInFlight batches are being solved or waiting for the sinks, so
+ * however many words the source has, at most that many batches are in memory.
+ * The sinks get the batches on one thread, in the order of the source, so they
+ * see the same results in the same order as WordleAIAnalyser.runExperiment would
+ * store them.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleExperimentStream
+{
+    private Function<String, WordleExperimentResult> solver;
+    private int parallelism;
+    private int batchSize;
+    private int maxBatchesInFlight;
+    
+    /**
+     * Constructs a stream that solves each word with solver on parallelism threads,
+     * taking words batchSize at a time with at most maxBatchesInFlight batches in memory.
+     */
+    public WordleExperimentStream(Function<String, WordleExperimentResult> solver, int parallelism,
+                                  int batchSize, int maxBatchesInFlight)
+    {
+        if (parallelism < 1 || batchSize < 1 || maxBatchesInFlight < 1)
+            throw new IllegalArgumentException("Parallelism, batch size and batches in flight must be at least 1");
+        this.solver = solver;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+    
+    /**
+     * Solves every word from source and passes the results to each sink, returning
+     * once the sinks have been given every result. If a sink or the solver throws,
+     * the stream stops and the exception is thrown from here.
+     */
+    public void run(Iterator<String> source, List<WordleResultSink> sinks) throws IOException
+    {
+        Semaphore inFlight = new Semaphore(maxBatchesInFlight);
+        BlockingQueue<Future<List<WordleExperimentResult>>> solved = new ArrayBlockingQueue<>(maxBatchesInFlight + 1);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        // Marks the end of the batches for the writer
+        Future<List<WordleExperimentResult>> end = CompletableFuture.completedFuture(null);
+        
+        // The writer takes the solved batches in source order, so it never has to put them back in order
+        ExecutorService writerThread = Executors.newSingleThreadExecutor();
+        Future<?> writer = writerThread.submit(() -> {
+            while (true) {
+                Future<List<WordleExperimentResult>> next = solved.take();
+                if (next == end)
+                    return null;
+                List<WordleExperimentResult> batch = next.get();
+                for (WordleResultSink sink: sinks)
+                    sink.accept(batch);
+                inFlight.release();
+            }
+        });
+        
+        try {
+            ArrayList<String> words = new ArrayList<>(batchSize);
+            while (source.hasNext() || !words.isEmpty()) {
+                if (source.hasNext())
+                    words.add(source.next());
+                if (words.size() == batchSize || (!source.hasNext() && !words.isEmpty())) {
+                    // Wait for room, giving up if the writer has stopped
+                    while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        if (writer.isDone())
+                            break;
+                    }
+                    if (writer.isDone())
+                        break;
+                    List<String> batch = words;
+                    solved.put(workers.submit(() -> solve(batch)));
+                    words = new ArrayList<>(batchSize);
+                }
+            }
+            if (!writer.isDone())
+                solved.put(end);
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming experiments", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // A failed batch is wrapped once by its worker and again by the writer
+            if (cause instanceof ExecutionException)
+                cause = cause.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            writer.cancel(true);
+            writerThread.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+    
+    private List<WordleExperimentResult> solve(List<String> words)
+    {
+        ArrayList<WordleExperimentResult> results = new ArrayList<>(words.size());
+        for (String word: words)
+            results.add(solver.apply(word));
+        return results;
+    }
+}
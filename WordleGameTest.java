@@ -0,0 +1,136 @@
+import static org.junit.Assert.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test class WordleGameTest.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleGameTest
+{
+    
+    @Test
+    public void testGuessWord()
+    {
+        WordleGame game = new WordleGame("dairy");
+        assertEquals("*_.__", game.guessWord("dxaxx"));
+        assertEquals("*****", game.guessWord("dairy"));
+        assertEquals("", game.guessWord("cat"));
+        assertEquals(2, game.getNumGuesses());
+    }
+    
+    @Test
+    public void testGuessWordStopsAfterSixGuesses()
+    {
+        WordleGame game = new WordleGame("cat");
+        for (int i = 0; i < 6; i++)
+            assertEquals("_.*", game.guessWord("zct"));
+        assertEquals("", game.guessWord("cat"));
+        assertEquals(WordleGame.NO_RESULT, game.guessCode("cat"));
+    }
+    
+    @Test
+    public void testGuessWordTooLongForCodes()
+    {
+        // 45 letters, longer than a feedback code can hold
+        String secret = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        String guess = "pneumonoultramicroscopicsilicovolcanoconiosix";
+        WordleGame game = new WordleGame(secret);
+        assertEquals("*".repeat(44) + "_", game.guessWord(guess));
+        assertEquals("*".repeat(45), game.guessWord(secret));
+        assertEquals(2, game.getNumGuesses());
+        assertEquals("", game.guessWord("cat"));
+    }
+    
+    @Test
+    public void testGuessCodeMatchesGuessWord()
+    {
+        String[] words = {"dairy", "daddy", "dxaxx", "testa", "dzzza", "aaaaa", "zebra"};
+        for (String secret: words) {
+            for (String guess: words) {
+                String result = new WordleGame(secret).guessWord(guess);
+                long code = new WordleGame(secret).guessCode(guess);
+                assertEquals(result, WordleGame.decodeResult(code, guess.length()));
+                assertEquals(code, WordleGame.encodeResult(result));
+                assertEquals(code, WordleGame.score(guess, secret));
+            }
+        }
+    }
+    
+    @Test
+    public void testCodec()
+    {
+        assertEquals(0, WordleGame.encodeResult("___"));
+        assertEquals(WordleGame.PRESENT, WordleGame.encodeResult(".__"));
+        assertEquals(3 * WordleGame.CORRECT, WordleGame.encodeResult("_*_"));
+        assertEquals(WordleGame.allCorrect(5), WordleGame.encodeResult("*****"));
+        assertEquals(WordleGame.CORRECT, WordleGame.digitAt(WordleGame.encodeResult("._*"), 2));
+        assertEquals("._*", WordleGame.decodeResult(WordleGame.encodeResult("._*"), 3));
+        assertEquals("", WordleGame.decodeResult(WordleGame.NO_RESULT, 3));
+    }
+    
+    @Test
+    public void testPackedWords()
+    {
+        long dairy = WordlePackedWord.pack("dairy");
+        assertEquals("dairy", WordlePackedWord.unpack(dairy));
+        assertEquals(5, WordlePackedWord.length(dairy));
+        assertEquals('i', WordlePackedWord.letterAt(dairy, 2));
+        assertEquals(WordleGame.letterMask("dairy"), WordlePackedWord.letterMask(dairy));
+        assertTrue(WordlePackedWord.contains(dairy, 'y'));
+        assertFalse(WordlePackedWord.contains(dairy, 'z'));
+        assertTrue(WordlePackedWord.pack("ab") < WordlePackedWord.pack("abc"));
+        assertTrue(WordlePackedWord.pack("abz") < WordlePackedWord.pack("ac"));
+        assertFalse(WordlePackedWord.canPack("abcdefghijklm"));
+        assertFalse(WordlePackedWord.canPack("Dairy"));
+    }
+    
+    @Test
+    public void testGuessPackedWord()
+    {
+        WordleGame game = new WordleGame("dairy");
+        assertEquals(WordleGame.encodeResult("*_.__"), game.guessCode(WordlePackedWord.pack("dxaxx")));
+        assertEquals(WordleGame.NO_RESULT, game.guessCode(WordlePackedWord.pack("cat")));
+        assertEquals(1, game.getNumGuesses());
+        
+        assertTrue(WordleAI.isConsistent(WordlePackedWord.pack("dxaxx"), WordleGame.encodeResult("*_.__"), WordlePackedWord.pack("dairy")));
+        assertFalse(WordleAI.isConsistent(WordlePackedWord.pack("daddy"), WordleGame.encodeResult("*_.__"), WordlePackedWord.pack("dairy")));
+        assertTrue(WordleAI.guessContains(WordlePackedWord.pack("test"), 'e'));
+    }
+    
+    @Test
+    public void testBatchScoring()
+    {
+        String[] words = {"dairy", "daddy", "added", "dxaxx", "zzzzz", "yield", "eerie"};
+        String[] guesses = {"dairy", "daddy", "eerie", "ab?cd"};
+        WordleBatchScorer scorer = new WordleBatchScorer(5, words);
+        long[] codes = new long[words.length];
+        for (String guess: guesses) {
+            scorer.scoreAll(guess, codes);
+            for (int i = 0; i < words.length; i++)
+                assertEquals(new WordleGame(words[i]).guessWord(guess), WordleGame.decodeResult(codes[i], 5));
+        }
+        
+        scorer.score("daddy", new int[] {6, 1}, 2, codes);
+        assertEquals(WordleGame.score("daddy", "eerie"), codes[0]);
+        assertEquals(WordleGame.allCorrect(5), codes[1]);
+        
+        // Letters outside 'a'-'z' are scored one word at a time
+        WordleBatchScorer other = new WordleBatchScorer(3, new String[] {"caf\u00e9".substring(1), "cat"});
+        other.scoreAll("af\u00e9", codes);
+        assertEquals(WordleGame.allCorrect(3), codes[0]);
+        assertEquals(WordleGame.score("af\u00e9", "cat"), codes[1]);
+        
+        // The scorer of an index is built from its packed words when first asked for
+        WordleCandidateIndex index = new WordleCandidateIndex(5, new String[] {"added", "daddy", "dairy", "dxaxx", "eerie"});
+        long heapBytes = index.getHeapBytes();
+        WordleBatchScorer indexScorer = index.getBatchScorer();
+        assertSame(indexScorer, index.getBatchScorer());
+        assertEquals(heapBytes + 5 * 5, index.getHeapBytes());
+        long[] indexCodes = new long[index.size()];
+        indexScorer.scoreAll("daddy", indexCodes);
+        for (int i = 0; i < index.size(); i++)
+            assertEquals(WordleGame.score("daddy", index.getWord(i)), indexCodes[i]);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Counts the work done while one game is played on one thread, for WordleMetrics.
+ * 
+ * A trace is started on a thread before a game is played and stopped after it.
+ * WordleGame, WordleAI and the findWord methods look up the current thread's trace
+ * with current() and add to it. While no thread has a trace, current() only reads
+ * one static field and returns null, so the hooks cost next to nothing.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleGameTrace
+{
+    // The number of threads with a trace, so current() can skip the ThreadLocal when it is 0
+    private static volatile int numActive;
+    private static final ThreadLocal<WordleGameTrace> CURRENT = new ThreadLocal<>();
+    
+    private long consistencyChecks;
+    private int guessCalls;
+    private int numGuesses;
+    // The candidates looked at and ruled out after each guess
+    private int[] scanned;
+    private int[] pruned;
+    
+    private WordleGameTrace()
+    {
+        scanned = new int[6];
+        pruned = new int[6];
+    }
+    
+    /**
+     * Starts a new trace on the current thread and returns it.
+     */
+    public static WordleGameTrace start()
+    {
+        WordleGameTrace trace = new WordleGameTrace();
+        if (CURRENT.get() == null)
+            changeActive(1);
+        CURRENT.set(trace);
+        return trace;
+    }
+    
+    /**
+     * Stops the trace on the current thread, if there is one.
+     */
+    public static void stop()
+    {
+        if (CURRENT.get() != null) {
+            CURRENT.remove();
+            changeActive(-1);
+        }
+    }
+    
+    /**
+     * Returns the trace on the current thread, or null if there is none.
+     */
+    public static WordleGameTrace current()
+    {
+        if (numActive == 0)
+            return null;
+        return CURRENT.get();
+    }
+    
+    /**
+     * Counts one consistency check of a candidate against a previous guess.
+     */
+    public void countConsistencyCheck()
+    {
+        consistencyChecks++;
+    }
+    
+    /**
+     * Counts a number of consistency checks made at once.
+     */
+    public void addConsistencyChecks(long numChecks)
+    {
+        consistencyChecks += numChecks;
+    }
+    
+    /**
+     * Counts one call to WordleGame.guessWord or guessCode.
+     */
+    public void countGuessCall()
+    {
+        guessCalls++;
+    }
+    
+    /**
+     * Records that after a guess, numScanned candidates were looked at and numPruned of them were ruled out.
+     * Only the first 6 guesses are kept.
+     */
+    public void countCandidates(int numScanned, int numPruned)
+    {
+        if (numGuesses < scanned.length) {
+            scanned[numGuesses] = numScanned;
+            pruned[numGuesses] = numPruned;
+        }
+        numGuesses++;
+    }
+    
+    /**
+     * Returns the number of consistency checks made.
+     */
+    public long getConsistencyChecks()
+    {
+        return consistencyChecks;
+    }
+    
+    /**
+     * Returns the number of calls to WordleGame.guessWord or guessCode.
+     */
+    public int getGuessCalls()
+    {
+        return guessCalls;
+    }
+    
+    /**
+     * Returns the number of guesses whose candidates were counted.
+     */
+    public int getNumCountedGuesses()
+    {
+        return Math.min(numGuesses, scanned.length);
+    }
+    
+    /**
+     * Returns the candidates looked at after guess number guess (0 is the first guess).
+     */
+    public int getScanned(int guess)
+    {
+        return scanned[guess];
+    }
+    
+    /**
+     * Returns the candidates ruled out after guess number guess (0 is the first guess).
+     */
+    public int getPruned(int guess)
+    {
+        return pruned[guess];
+    }
+    
+    private static synchronized void changeActive(int change)
+    {
+        numActive += change;
+    }
+}
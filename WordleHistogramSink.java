@@ -0,0 +1,50 @@
+import java.util.List;
+
+/**
+ * A WordleResultSink that only counts how many guesses each experiment needed,
+ * which is all makeHistogram needs.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleHistogramSink implements WordleResultSink
+{
+    private int[] numGuessesFrequency;
+    
+    /**
+     * Constructs a sink with no experiments counted.
+     */
+    public WordleHistogramSink()
+    {
+        numGuessesFrequency = new int[7];
+    }
+    
+    /**
+     * Counts the number of guesses of each result.
+     */
+    public void accept(List<WordleExperimentResult> batch)
+    {
+        for (WordleExperimentResult result: batch) {
+            if (result.getGuesses() == null)
+                numGuessesFrequency[6]++;
+            else
+                numGuessesFrequency[result.getGuesses().size() - 1]++;
+        }
+    }
+    
+    /**
+     * Returns the number of experiments solved in 1 to 6 guesses, then the number unsolved.
+     * See WordleAIAnalyser.getNumGuessesFrequency.
+     */
+    public int[] getNumGuessesFrequency()
+    {
+        return numGuessesFrequency.clone();
+    }
+    
+    /**
+     * Returns the histogram of the counts, the same as WordleAIAnalyser.makeHistogram would.
+     */
+    public String makeHistogram(int bucketSize)
+    {
+        return WordleStatistics.makeHistogram(numGuessesFrequency, bucketSize);
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.*;
+
+/**
+ * Keeps the results of WordleAI.findWord for every word of one length up to date
+ * as the dictionary changes, re-solving only the games a change can affect.
+ * 
+ * findWord always guesses the smallest word consistent with the feedback so far,
+ * so its guesses in a game only ever increase, and each guess depends only on the
+ * words before it. For each game the analyser keeps its footprint: every guess made
+ * (including those of an unsolved game) and the feedback each one got. Then, exactly:
+ * 
+ *  - removing a word changes the games that guessed it, and
+ *  - adding a word w changes the games where w is consistent with the feedback
+ *    before the first guess that comes after w (if any guess does), since w would
+ *    then have been guessed instead.
+ * 
+ * No other game changes, so after update the results and statistics are the same
+ * as solving every word of the new dictionary again.
+ * 
+ * There is one experiment per distinct word, kept in lexicographic order.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleIncrementalAnalyser
+{
+    private WordleDictionary dictionary;
+    private int wordLength;
+    // The footprint of the game for each secret word
+    private TreeMap<String, Footprint> footprints;
+    // The secret words whose games guessed each word
+    private HashMap<String, HashSet<String>> guessedBy;
+    private WordleStatistics statistics;
+    private int numSolvedLastUpdate;
+    
+    /**
+     * Constructs an analyser for the words of dictionary with the given length,
+     * with no experiments run yet.
+     */
+    public WordleIncrementalAnalyser(WordleDictionary dictionary, int wordLength)
+    {
+        this.dictionary = dictionary;
+        this.wordLength = wordLength;
+        footprints = new TreeMap<>();
+        guessedBy = new HashMap<>();
+        statistics = new WordleStatistics();
+    }
+    
+    /**
+     * Runs an experiment for every word of the dictionary with the right length,
+     * replacing any results already kept.
+     */
+    public void runExperimentsWithAllWords()
+    {
+        footprints.clear();
+        guessedBy.clear();
+        statistics = new WordleStatistics();
+        List<String> words = dictionary.getSortedWordsWithLength(wordLength);
+        for (String word: words)
+            add(solve(word));
+        numSolvedLastUpdate = words.size();
+    }
+    
+    /**
+     * Moves the analyser to newDictionary, re-solving the games that the words added
+     * and removed (of the analyser's length) change, and the games of the added words.
+     * The results of removed words are dropped. Returns the number of games solved.
+     */
+    public int update(WordleDictionary newDictionary)
+    {
+        ArrayList<String> added = new ArrayList<>();
+        ArrayList<String> removed = new ArrayList<>();
+        diff(dictionary.getSortedWordsWithLength(wordLength), newDictionary.getSortedWordsWithLength(wordLength),
+             added, removed);
+        
+        TreeSet<String> invalidated = getInvalidatedWords(added, removed);
+        for (String word: removed) {
+            Footprint footprint = footprints.get(word);
+            if (footprint != null)
+                remove(footprint);
+        }
+        for (String word: invalidated)
+            remove(footprints.get(word));
+        
+        dictionary = newDictionary;
+        invalidated.addAll(added);
+        for (String word: invalidated)
+            add(solve(word));
+        numSolvedLastUpdate = invalidated.size();
+        return numSolvedLastUpdate;
+    }
+    
+    /**
+     * Returns the words, out of those with experiments kept, whose games would change if
+     * the words in added were added to the dictionary and those in removed were taken out,
+     * in lexicographic order. Words in removed are not included.
+     */
+    public TreeSet<String> getInvalidatedWords(Collection<String> added, Collection<String> removed)
+    {
+        TreeSet<String> invalidated = new TreeSet<>();
+        for (String word: removed) {
+            HashSet<String> secrets = guessedBy.get(word);
+            if (secrets != null)
+                invalidated.addAll(secrets);
+        }
+        
+        ArrayList<String> newWords = new ArrayList<>();
+        for (String word: added) {
+            if (word.length() == wordLength && !footprints.containsKey(word))
+                newWords.add(word);
+        }
+        if (!newWords.isEmpty()) {
+            for (Footprint footprint: footprints.values()) {
+                if (!invalidated.contains(footprint.secret) && isChangedBy(footprint, newWords))
+                    invalidated.add(footprint.secret);
+            }
+        }
+        invalidated.removeAll(removed);
+        return invalidated;
+    }
+    
+    /**
+     * Returns the result of every experiment, in lexicographic order of the secret words.
+     */
+    public ArrayList<WordleExperimentResult> getExperimentResults()
+    {
+        ArrayList<WordleExperimentResult> results = new ArrayList<>(footprints.size());
+        for (Footprint footprint: footprints.values())
+            results.add(footprint.toResult());
+        return results;
+    }
+    
+    /**
+     * Returns the result of the experiment with word as the secret word, or null if there is none.
+     */
+    public WordleExperimentResult getExperimentResult(String word)
+    {
+        Footprint footprint = footprints.get(word);
+        return footprint == null ? null : footprint.toResult();
+    }
+    
+    /**
+     * Returns the statistics of every experiment, which update patches rather than rebuilds.
+     */
+    public WordleStatistics getStatistics()
+    {
+        return statistics;
+    }
+    
+    /**
+     * Returns the number of experiments kept.
+     */
+    public int getNumExperiments()
+    {
+        return footprints.size();
+    }
+    
+    /**
+     * Returns the number of games solved by the last runExperimentsWithAllWords or update.
+     */
+    public int getNumSolvedLastUpdate()
+    {
+        return numSolvedLastUpdate;
+    }
+    
+    /**
+     * Returns the dictionary the experiments are for.
+     */
+    public WordleDictionary getDictionary()
+    {
+        return dictionary;
+    }
+    
+    /**
+     * Returns the word length of the experiments.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns true if any of words would be guessed in the game of footprint instead of a guess it made.
+     */
+    private static boolean isChangedBy(Footprint footprint, List<String> words)
+    {
+        String[] guesses = footprint.guesses;
+        for (String word: words) {
+            // Guesses only increase, and the feedback a word must be consistent with only
+            // grows, so only the first guess after word has to be checked
+            int i = 0;
+            while (i < guesses.length && guesses[i].compareTo(word) < 0)
+                i++;
+            if (i == guesses.length)
+                continue;
+            int j = 0;
+            while (j < i && WordleGame.score(guesses[j], word) == footprint.codes[j])
+                j++;
+            if (j == i)
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Sets added to the words in newWords but not oldWords, and removed to the
+     * words in oldWords but not newWords. Both lists must be sorted without duplicates.
+     */
+    private static void diff(List<String> oldWords, List<String> newWords, List<String> added, List<String> removed)
+    {
+        int i = 0;
+        int j = 0;
+        while (i < oldWords.size() || j < newWords.size()) {
+            int compare = i == oldWords.size() ? 1 : j == newWords.size() ? -1
+                                                   : oldWords.get(i).compareTo(newWords.get(j));
+            if (compare < 0) {
+                removed.add(oldWords.get(i++));
+            } else if (compare > 0) {
+                added.add(newWords.get(j++));
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+    
+    /**
+     * Plays findWord with word as the secret word and returns the footprint of the game.
+     */
+    private Footprint solve(String word)
+    {
+        ArrayList<String> guesses = new ArrayList<>();
+        // findWord only returns the guesses of a solved game, so the strategy records them as they are made
+        GuessStrategy recording = (index, candidates, numGuesses) -> {
+            int next = GuessStrategy.SMALLEST_CONSISTENT.nextGuess(index, candidates, numGuesses);
+            if (next >= 0)
+                guesses.add(index.getWord(next));
+            return next;
+        };
+        boolean solved = WordleAI.findWord(dictionary, new WordleGame(word), recording) != null;
+        return new Footprint(word, guesses, solved);
+    }
+    
+    /**
+     * Keeps a footprint and adds its result to the statistics.
+     */
+    private void add(Footprint footprint)
+    {
+        footprints.put(footprint.secret, footprint);
+        for (String guess: footprint.guesses)
+            guessedBy.computeIfAbsent(guess, k -> new HashSet<>()).add(footprint.secret);
+        statistics.record(footprint.toResult());
+    }
+    
+    /**
+     * Drops a footprint and takes its result out of the statistics.
+     */
+    private void remove(Footprint footprint)
+    {
+        footprints.remove(footprint.secret);
+        for (String guess: footprint.guesses) {
+            HashSet<String> secrets = guessedBy.get(guess);
+            secrets.remove(footprint.secret);
+            if (secrets.isEmpty())
+                guessedBy.remove(guess);
+        }
+        statistics.remove(footprint.toResult());
+    }
+    
+    /**
+     * The guesses of one game, and the feedback code each got.
+     */
+    private static class Footprint
+    {
+        String secret;
+        String[] guesses;
+        long[] codes;
+        boolean solved;
+        
+        Footprint(String secret, List<String> guesses, boolean solved)
+        {
+            this.secret = secret;
+            this.guesses = guesses.toArray(new String[0]);
+            this.solved = solved;
+            codes = new long[this.guesses.length];
+            for (int i = 0; i < codes.length; i++)
+                codes[i] = WordleGame.score(this.guesses[i], secret);
+        }
+        
+        WordleExperimentResult toResult()
+        {
+            return new WordleExperimentResult(secret, solved ? new ArrayList<>(Arrays.asList(guesses)) : null);
+        }
+    }
+}
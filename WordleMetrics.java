@@ -0,0 +1,334 @@
+import java.util.*;
+
+/**
+ * Metrics collected while a WordleAIAnalyser runs experiments.
+ * 
+ * For each experiment it records how long the solve took, how many consistency
+ * checks and guessWord calls were made, and how many candidates were looked at
+ * and ruled out after each guess (see WordleGameTrace). Latencies go into a
+ * histogram with one bucket per power of two nanoseconds, and the slowest
+ * experiments are kept with their candidate counts, so slow secrets can be
+ * matched with the candidate sets that made them slow.
+ * 
+ * Experiments can be recorded from several threads. snapshot returns a copy that
+ * does not change, and toText and toJson write a copy out.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleMetrics
+{
+    private int numSlowest;
+    
+    private long numExperiments;
+    private long numSolved;
+    // Bucket b counts latencies from 2^b to 2^(b + 1) - 1 nanoseconds (bucket 0 also counts 0)
+    private long[] latencyHistogram;
+    private long totalNanos;
+    private long maxNanos;
+    private long consistencyChecks;
+    private long guessCalls;
+    // Entry i counts games with i calls to guessWord, and the last entry counts games with more
+    private long[] guessCallsFrequency;
+    // Totals of the candidates looked at and ruled out after each guess, and the number of games in each total
+    private long[] candidatesScanned;
+    private long[] candidatesPruned;
+    private long[] gamesCounted;
+    // The slowest experiments, slowest first
+    private ArrayList<String> slowestWords;
+    private ArrayList<Long> slowestNanos;
+    private ArrayList<int[]> slowestCandidates;
+    
+    /**
+     * Constructs empty metrics that keep the 10 slowest experiments.
+     */
+    public WordleMetrics()
+    {
+        this(10);
+    }
+    
+    /**
+     * Constructs empty metrics that keep the numSlowest slowest experiments.
+     */
+    public WordleMetrics(int numSlowest)
+    {
+        this.numSlowest = numSlowest;
+        latencyHistogram = new long[63];
+        guessCallsFrequency = new long[8];
+        candidatesScanned = new long[6];
+        candidatesPruned = new long[6];
+        gamesCounted = new long[6];
+        slowestWords = new ArrayList<>();
+        slowestNanos = new ArrayList<>();
+        slowestCandidates = new ArrayList<>();
+    }
+    
+    /**
+     * Records an experiment on word that took nanos nanoseconds, with the trace
+     * of the game it played (which may be null if it was not traced).
+     */
+    public synchronized void record(String word, boolean solved, long nanos, WordleGameTrace trace)
+    {
+        numExperiments++;
+        if (solved)
+            numSolved++;
+        latencyHistogram[63 - Long.numberOfLeadingZeros(Math.max(1, nanos))]++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        
+        int[] candidates = new int[0];
+        if (trace != null) {
+            consistencyChecks += trace.getConsistencyChecks();
+            guessCalls += trace.getGuessCalls();
+            guessCallsFrequency[Math.min(trace.getGuessCalls(), guessCallsFrequency.length - 1)]++;
+            candidates = new int[trace.getNumCountedGuesses()];
+            for (int i = 0; i < candidates.length; i++) {
+                candidatesScanned[i] += trace.getScanned(i);
+                candidatesPruned[i] += trace.getPruned(i);
+                gamesCounted[i]++;
+                candidates[i] = trace.getScanned(i);
+            }
+        }
+        
+        // Insert into the slowest experiments, which are few enough to keep in order by hand
+        int position = slowestNanos.size();
+        while (position > 0 && slowestNanos.get(position - 1) < nanos)
+            position--;
+        if (position < numSlowest) {
+            slowestWords.add(position, word);
+            slowestNanos.add(position, nanos);
+            slowestCandidates.add(position, candidates);
+            if (slowestWords.size() > numSlowest) {
+                slowestWords.remove(numSlowest);
+                slowestNanos.remove(numSlowest);
+                slowestCandidates.remove(numSlowest);
+            }
+        }
+    }
+    
+    /**
+     * Returns a copy of these metrics that is not changed by later experiments.
+     */
+    public synchronized WordleMetrics snapshot()
+    {
+        WordleMetrics copy = new WordleMetrics(numSlowest);
+        copy.numExperiments = numExperiments;
+        copy.numSolved = numSolved;
+        copy.latencyHistogram = latencyHistogram.clone();
+        copy.totalNanos = totalNanos;
+        copy.maxNanos = maxNanos;
+        copy.consistencyChecks = consistencyChecks;
+        copy.guessCalls = guessCalls;
+        copy.guessCallsFrequency = guessCallsFrequency.clone();
+        copy.candidatesScanned = candidatesScanned.clone();
+        copy.candidatesPruned = candidatesPruned.clone();
+        copy.gamesCounted = gamesCounted.clone();
+        copy.slowestWords = new ArrayList<>(slowestWords);
+        copy.slowestNanos = new ArrayList<>(slowestNanos);
+        copy.slowestCandidates = new ArrayList<>(slowestCandidates);
+        return copy;
+    }
+    
+    /**
+     * Returns the number of experiments recorded.
+     */
+    public synchronized long getNumExperiments()
+    {
+        return numExperiments;
+    }
+    
+    /**
+     * Returns the number of experiments whose secret word was found.
+     */
+    public synchronized long getNumSolved()
+    {
+        return numSolved;
+    }
+    
+    /**
+     * Returns the latency histogram: entry b is the number of experiments that
+     * took from 2^b to 2^(b + 1) - 1 nanoseconds.
+     */
+    public synchronized long[] getLatencyHistogram()
+    {
+        return latencyHistogram.clone();
+    }
+    
+    /**
+     * Returns the mean latency of an experiment in nanoseconds, or 0 if there are none.
+     */
+    public synchronized double getMeanLatency()
+    {
+        return numExperiments == 0 ? 0 : (double) totalNanos / numExperiments;
+    }
+    
+    /**
+     * Returns the latency of the slowest experiment in nanoseconds.
+     */
+    public synchronized long getMaxLatency()
+    {
+        return maxNanos;
+    }
+    
+    /**
+     * Returns an upper bound on the latency in nanoseconds that a fraction
+     * (from 0 to 1) of the experiments were at most, from the latency histogram.
+     */
+    public synchronized long getLatencyPercentile(double fraction)
+    {
+        long target = (long) Math.ceil(fraction * numExperiments);
+        long count = 0;
+        for (int b = 0; b < latencyHistogram.length; b++) {
+            count += latencyHistogram[b];
+            if (count >= target && count > 0)
+                return Math.min(maxNanos, (1L << (b + 1)) - 1);
+        }
+        return 0;
+    }
+    
+    /**
+     * Returns the total number of consistency checks made.
+     */
+    public synchronized long getConsistencyChecks()
+    {
+        return consistencyChecks;
+    }
+    
+    /**
+     * Returns the total number of calls to WordleGame.guessWord or guessCode.
+     */
+    public synchronized long getGuessCalls()
+    {
+        return guessCalls;
+    }
+    
+    /**
+     * Returns an array of length 8 where entry i is the number of games that
+     * called guessWord i times, and entry 7 counts games that called it more often.
+     */
+    public synchronized long[] getGuessCallsFrequency()
+    {
+        return guessCallsFrequency.clone();
+    }
+    
+    /**
+     * Returns an array of length 6 where entry i is the total number of candidates
+     * looked at after guess i + 1, over all games.
+     */
+    public synchronized long[] getCandidatesScanned()
+    {
+        return candidatesScanned.clone();
+    }
+    
+    /**
+     * Returns an array of length 6 where entry i is the total number of candidates
+     * ruled out after guess i + 1, over all games.
+     */
+    public synchronized long[] getCandidatesPruned()
+    {
+        return candidatesPruned.clone();
+    }
+    
+    /**
+     * Returns the secret words of the slowest experiments, slowest first.
+     */
+    public synchronized ArrayList<String> getSlowestWords()
+    {
+        return new ArrayList<>(slowestWords);
+    }
+    
+    /**
+     * Returns the latencies in nanoseconds of the slowest experiments, slowest first.
+     */
+    public synchronized ArrayList<Long> getSlowestLatencies()
+    {
+        return new ArrayList<>(slowestNanos);
+    }
+    
+    /**
+     * Returns the candidates looked at after each guess of the slowest experiment number i (0 is the slowest).
+     */
+    public synchronized int[] getSlowestCandidates(int i)
+    {
+        return slowestCandidates.get(i).clone();
+    }
+    
+    /**
+     * Returns the metrics as plain text.
+     */
+    public String toText()
+    {
+        WordleMetrics m = snapshot();
+        StringBuilder text = new StringBuilder();
+        text.append("experiments: ").append(m.numExperiments).append(" (").append(m.numSolved).append(" solved)\n");
+        text.append(String.format("latency ns: mean %.0f, p50 <= %d, p99 <= %d, max %d%n",
+            m.getMeanLatency(), m.getLatencyPercentile(0.5), m.getLatencyPercentile(0.99), m.maxNanos));
+        text.append("consistency checks: ").append(m.consistencyChecks).append('\n');
+        text.append("guessWord calls: ").append(m.guessCalls)
+            .append(", games by calls: ").append(Arrays.toString(m.guessCallsFrequency)).append('\n');
+        for (int i = 0; i < m.gamesCounted.length && m.gamesCounted[i] > 0; i++)
+            text.append(String.format("after guess %d: %.1f candidates scanned, %.1f pruned (%d games)%n", i + 1,
+                (double) m.candidatesScanned[i] / m.gamesCounted[i],
+                (double) m.candidatesPruned[i] / m.gamesCounted[i], m.gamesCounted[i]));
+        text.append("latency histogram:\n");
+        for (int b = 0; b < m.latencyHistogram.length; b++) {
+            if (m.latencyHistogram[b] > 0)
+                text.append(String.format("  %d-%d ns: %d%n", b == 0 ? 0 : 1L << b, (1L << (b + 1)) - 1, m.latencyHistogram[b]));
+        }
+        text.append("slowest:\n");
+        for (int i = 0; i < m.slowestWords.size(); i++)
+            text.append("  ").append(m.slowestWords.get(i)).append(' ').append(m.slowestNanos.get(i))
+                .append(" ns, candidates ").append(Arrays.toString(m.slowestCandidates.get(i))).append('\n');
+        return text.toString();
+    }
+    
+    /**
+     * Returns the metrics as a JSON object.
+     */
+    public String toJson()
+    {
+        WordleMetrics m = snapshot();
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"experiments\":").append(m.numExperiments);
+        json.append(",\"solved\":").append(m.numSolved);
+        json.append(",\"latencyNanos\":{\"mean\":").append(Math.round(m.getMeanLatency()));
+        json.append(",\"p50\":").append(m.getLatencyPercentile(0.5));
+        json.append(",\"p99\":").append(m.getLatencyPercentile(0.99));
+        json.append(",\"max\":").append(m.maxNanos);
+        json.append(",\"histogram\":").append(toJson(m.latencyHistogram)).append('}');
+        json.append(",\"consistencyChecks\":").append(m.consistencyChecks);
+        json.append(",\"guessCalls\":").append(m.guessCalls);
+        json.append(",\"guessCallsFrequency\":").append(toJson(m.guessCallsFrequency));
+        json.append(",\"candidatesScanned\":").append(toJson(m.candidatesScanned));
+        json.append(",\"candidatesPruned\":").append(toJson(m.candidatesPruned));
+        json.append(",\"gamesCounted\":").append(toJson(m.gamesCounted));
+        json.append(",\"slowest\":[");
+        for (int i = 0; i < m.slowestWords.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            json.append("{\"word\":\"").append(escape(m.slowestWords.get(i)));
+            json.append("\",\"nanos\":").append(m.slowestNanos.get(i));
+            json.append(",\"candidates\":").append(Arrays.toString(m.slowestCandidates.get(i)).replace(" ", ""));
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+    
+    private static String toJson(long[] values)
+    {
+        return Arrays.toString(values).replace(" ", "");
+    }
+    
+    private static String escape(String text)
+    {
+        StringBuilder escaped = new StringBuilder();
+        for (char c: text.toCharArray()) {
+            if (c == '"' || c == '\\')
+                escaped.append('\\').append(c);
+            else if (c < 0x20)
+                escaped.append(String.format("\\u%04x", (int) c));
+            else
+                escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
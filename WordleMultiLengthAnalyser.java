@@ -0,0 +1,172 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Analyses the WordleAI on every word length of a dictionary at once.
+ * 
+ * The dictionary already keeps its words grouped by length, so each length gets
+ * its own WordleAIAnalyser over its group and all of them run at the same time.
+ * The threads are shared out by the number of words of each length, so a large
+ * length gets more threads than a small one and the whole analysis takes about
+ * as long as the largest length on its own. The largest lengths are started first.
+ * 
+ * After run, the statistics and histograms are available for each length and
+ * combined over all lengths.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleMultiLengthAnalyser
+{
+    private WordleDictionary dictionary;
+    // The analyser of each word length, from shortest to longest
+    private TreeMap<Integer, WordleAIAnalyser> analysers;
+    
+    /**
+     * Constructs an analyser for every word length in dictionary, using the default WordleAI.
+     */
+    public WordleMultiLengthAnalyser(WordleDictionary dictionary)
+    {
+        this(dictionary, null);
+    }
+    
+    /**
+     * Constructs an analyser for every word length in dictionary, with the WordleAI
+     * using strategy (or the default strategy if strategy is null).
+     */
+    public WordleMultiLengthAnalyser(WordleDictionary dictionary, GuessStrategy strategy)
+    {
+        this.dictionary = dictionary;
+        analysers = new TreeMap<>();
+        for (int length: dictionary.getWordLengths()) {
+            if (strategy == null)
+                analysers.put(length, new WordleAIAnalyser(dictionary, length));
+            else
+                analysers.put(length, new WordleAIAnalyser(dictionary, length, strategy));
+        }
+    }
+    
+    /**
+     * Runs an experiment for every word in the dictionary, using about threads
+     * threads in total. Each length gets a share of the threads in proportion
+     * to its number of words, and at least one.
+     */
+    public void run(int threads)
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        
+        long total = 0;
+        ArrayList<Integer> lengths = new ArrayList<>(analysers.keySet());
+        for (int length: lengths)
+            total += dictionary.getNumWordsWithLength(length);
+        // Start the largest lengths first so they are not left until the end
+        lengths.sort(Comparator.comparing((Integer length) -> dictionary.getNumWordsWithLength(length)).reversed());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, lengths.size())));
+        try {
+            ArrayList<Future<?>> sweeps = new ArrayList<>();
+            for (int length: lengths) {
+                WordleAIAnalyser analyser = analysers.get(length);
+                long share = Math.round((double) threads * dictionary.getNumWordsWithLength(length) / total);
+                analyser.setParallelism((int) Math.max(1, share));
+                sweeps.add(executor.submit(analyser::runExperimentsWithAllWords));
+            }
+            for (Future<?> sweep: sweeps)
+                sweep.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running experiments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Returns the word lengths being analysed, from shortest to longest.
+     */
+    public ArrayList<Integer> getWordLengths()
+    {
+        return new ArrayList<>(analysers.keySet());
+    }
+    
+    /**
+     * Returns the analyser of one word length.
+     */
+    public WordleAIAnalyser getAnalyser(int length)
+    {
+        WordleAIAnalyser analyser = analysers.get(length);
+        if (analyser == null)
+            throw new IllegalArgumentException("The dictionary has no words of length " + length);
+        return analyser;
+    }
+    
+    /**
+     * Returns the statistics of one word length.
+     */
+    public WordleStatistics getStatistics(int length)
+    {
+        return getAnalyser(length).getStatistics();
+    }
+    
+    /**
+     * Returns the statistics of every word length combined.
+     */
+    public WordleStatistics getCombinedStatistics()
+    {
+        WordleStatistics combined = new WordleStatistics();
+        for (WordleAIAnalyser analyser: analysers.values())
+            combined.merge(analyser.getStatistics());
+        return combined;
+    }
+    
+    /**
+     * Returns the guess-count frequencies of every word length combined.
+     * See WordleAIAnalyser.getNumGuessesFrequency.
+     */
+    public int[] getNumGuessesFrequency()
+    {
+        return getCombinedStatistics().getNumGuessesFrequency();
+    }
+    
+    /**
+     * Returns the letter frequencies of every word length combined.
+     * See WordleAIAnalyser.getGuessLetterFrequency.
+     */
+    public int[] getGuessLetterFrequency()
+    {
+        return getCombinedStatistics().getGuessLetterFrequency();
+    }
+    
+    /**
+     * Returns the histogram of every word length combined.
+     * See WordleAIAnalyser.makeHistogram.
+     */
+    public String makeHistogram(int bucketSize)
+    {
+        return getCombinedStatistics().makeHistogram(bucketSize);
+    }
+    
+    /**
+     * Returns a report with the guess-count frequencies and histogram of each
+     * word length and of all lengths combined.
+     */
+    public String makeReport(int bucketSize)
+    {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<Integer, WordleAIAnalyser> entry: analysers.entrySet()) {
+            WordleStatistics statistics = entry.getValue().getStatistics();
+            report.append("Length ").append(entry.getKey()).append(": ").append(statistics.getNumExperiments())
+                .append(" experiments, guesses ").append(Arrays.toString(statistics.getNumGuessesFrequency())).append('\n');
+            report.append(statistics.makeHistogram(bucketSize)).append('\n');
+        }
+        WordleStatistics combined = getCombinedStatistics();
+        report.append("All lengths: ").append(combined.getNumExperiments())
+            .append(" experiments, guesses ").append(Arrays.toString(combined.getNumGuessesFrequency())).append('\n');
+        report.append(combined.makeHistogram(bucketSize));
+        return report.toString();
+    }
+}
@@ -0,0 +1,363 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * The words of a WordleDictionary kept outside the Java heap.
+ * 
+ * For each length the store has one block of memory with the sorted words'
+ * letters packed together, and one with the dictionary order of the words as ids
+ * into the sorted words, the same layout as a dictionary snapshot (see
+ * WordleDictionaryLoader). The blocks are either direct buffers, or a snapshot
+ * file mapped into memory read-only, so that every JVM mapping the same file
+ * shares one copy in the operating system's page cache. Either way the garbage
+ * collector never sees the words, however many there are.
+ * 
+ * Words are read straight from the blocks: looking a word up, comparing it or
+ * reading its letters makes no objects, and a String is only made when a word
+ * is asked for as one. Buffers are used rather than the Foreign Memory API,
+ * which is still incubating in Java 17; so each length's letters must fit in
+ * 2 GB.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleOffHeapWords
+{
+    // The words of each length
+    private TreeMap<Integer, Segment> segments;
+    
+    private WordleOffHeapWords()
+    {
+        segments = new TreeMap<>();
+    }
+    
+    /**
+     * Copies a dictionary into direct buffers, given its sorted words and its
+     * words in dictionary order for each length.
+     */
+    public static WordleOffHeapWords build(Map<Integer, String[]> sortedWordsByLength,
+                                           Map<Integer, ? extends List<String>> wordsByLength)
+    {
+        WordleOffHeapWords store = new WordleOffHeapWords();
+        for (Map.Entry<Integer, String[]> entry : sortedWordsByLength.entrySet()) {
+            int length = entry.getKey();
+            String[] sorted = entry.getValue();
+            int bytesPerLetter = 1;
+            for (String word : sorted) {
+                for (int i = 0; i < length; i++) {
+                    if (word.charAt(i) > 0xff)
+                        bytesPerLetter = 2;
+                }
+            }
+            
+            ByteBuffer letters = ByteBuffer.allocateDirect(Math.multiplyExact(sorted.length, length * bytesPerLetter));
+            for (String word : sorted) {
+                for (int i = 0; i < length; i++) {
+                    if (bytesPerLetter == 1)
+                        letters.put((byte) word.charAt(i));
+                    else
+                        letters.putChar(word.charAt(i));
+                }
+            }
+            
+            List<String> ordered = wordsByLength.get(length);
+            IntBuffer order = ByteBuffer.allocateDirect(Math.multiplyExact(ordered.size(), 4)).asIntBuffer();
+            for (String word : ordered)
+                order.put(Arrays.binarySearch(sorted, word));
+            store.segments.put(length, new Segment(length, bytesPerLetter, sorted.length, letters, order));
+        }
+        return store;
+    }
+    
+    /**
+     * Maps a snapshot written by WordleDictionary.saveSnapshot into memory, read-only.
+     * Only the lengths and word counts are read now; the words are read from the file
+     * as they are used.
+     */
+    public static WordleOffHeapWords map(File snapshot) throws IOException
+    {
+        WordleOffHeapWords store = new WordleOffHeapWords();
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(12);
+            readFully(channel, header.limit(8), position);
+            if (header.getInt(0) != WordleDictionaryLoader.SNAPSHOT_MAGIC)
+                throw new IOException("Not a dictionary snapshot: " + snapshot);
+            int numLengths = header.getInt(4);
+            position += 8;
+            
+            for (int n = 0; n < numLengths; n++) {
+                readFully(channel, header.clear(), position);
+                int length = header.getInt(0);
+                int bytesPerLetter = header.getInt(4);
+                int numSorted = header.getInt(8);
+                position += 12;
+                long letterBytes = (long) numSorted * length * bytesPerLetter;
+                ByteBuffer letters = channel.map(FileChannel.MapMode.READ_ONLY, position, letterBytes);
+                position += letterBytes;
+                
+                readFully(channel, header.clear().limit(4), position);
+                int numOrdered = header.getInt(0);
+                position += 4;
+                IntBuffer order = channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * numOrdered).asIntBuffer();
+                position += 4L * numOrdered;
+                store.segments.put(length, new Segment(length, bytesPerLetter, numSorted, letters, order));
+            }
+        }
+        return store;
+    }
+    
+    /**
+     * Returns the lengths of the words, from shortest to longest.
+     */
+    public ArrayList<Integer> getWordLengths()
+    {
+        return new ArrayList<>(segments.keySet());
+    }
+    
+    /**
+     * Returns the number of words with a specified length in dictionary order, counting duplicates.
+     */
+    public int getNumWords(int length)
+    {
+        Segment segment = segments.get(length);
+        return segment == null ? 0 : segment.order.limit();
+    }
+    
+    /**
+     * Returns the number of different words with a specified length.
+     */
+    public int getNumSortedWords(int length)
+    {
+        Segment segment = segments.get(length);
+        return segment == null ? 0 : segment.numSorted;
+    }
+    
+    /**
+     * Returns the id (position in lexicographic order) of word i with a specified
+     * length in dictionary order.
+     */
+    public int getSortedId(int length, int i)
+    {
+        return segment(length).order.get(i);
+    }
+    
+    /**
+     * Returns the letter at position of the word with a specified length and id.
+     */
+    public char getLetter(int length, int id, int position)
+    {
+        return segment(length).getLetter(id, position);
+    }
+    
+    /**
+     * Returns the word with a specified length and id as a String.
+     */
+    public String getWord(int length, int id)
+    {
+        Segment segment = segment(length);
+        int start = id * length * segment.bytesPerLetter;
+        if (segment.bytesPerLetter == 1) {
+            byte[] letters = new byte[length];
+            segment.letters.get(start, letters);
+            return new String(letters, StandardCharsets.ISO_8859_1);
+        }
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++)
+            letters[i] = segment.letters.getChar(start + 2 * i);
+        return new String(letters);
+    }
+    
+    /**
+     * Returns the id of word among the words with a specified length, or, as
+     * Arrays.binarySearch, -(insertion point) - 1 if it is not one of them.
+     * The words are ordered as by String.compareTo, so word may have any length.
+     */
+    public int search(int length, CharSequence word)
+    {
+        Segment segment = segments.get(length);
+        if (segment == null)
+            return -1;
+        int low = 0;
+        int high = segment.numSorted - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = segment.compare(middle, word);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -(low + 1);
+    }
+    
+    /**
+     * Returns the index of word in sorted, a list sorted without duplicates, or, as
+     * Collections.binarySearch, -(insertion point) - 1 if it is not there. A list
+     * from getSortedWords is searched in place with search, so no String is read
+     * from the store at each probe.
+     */
+    static int binarySearch(List<String> sorted, String word)
+    {
+        if (sorted instanceof SortedWords)
+            return ((SortedWords) sorted).binarySearch(word);
+        return Collections.binarySearch(sorted, word);
+    }
+    
+    /**
+     * Returns a read-only list of the words with a specified length, in lexicographic
+     * order, that reads each word from the store when it is asked for.
+     */
+    public List<String> getSortedWords(int length)
+    {
+        if (!segments.containsKey(length))
+            return Collections.emptyList();
+        return new SortedWords(length);
+    }
+    
+    /**
+     * Returns a read-only list of the words with a specified length, in dictionary
+     * order and counting duplicates, that reads each word from the store when it is asked for.
+     */
+    public List<String> getWords(int length)
+    {
+        if (!segments.containsKey(length))
+            return Collections.emptyList();
+        return new OrderedWords(length);
+    }
+    
+    private Segment segment(int length)
+    {
+        Segment segment = segments.get(length);
+        if (segment == null)
+            throw new IllegalArgumentException("There are no words of length " + length);
+        return segment;
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException("Dictionary snapshot is cut short");
+        }
+    }
+    
+    /**
+     * The words of one length.
+     */
+    private static class Segment
+    {
+        private int length;
+        private int bytesPerLetter;
+        private int numSorted;
+        // The letters of the sorted words, one after another
+        private ByteBuffer letters;
+        // The id of each word in dictionary order
+        private IntBuffer order;
+        
+        Segment(int length, int bytesPerLetter, int numSorted, ByteBuffer letters, IntBuffer order)
+        {
+            this.length = length;
+            this.bytesPerLetter = bytesPerLetter;
+            this.numSorted = numSorted;
+            this.letters = letters;
+            this.order = order;
+        }
+        
+        char getLetter(int id, int position)
+        {
+            int index = (id * length + position) * bytesPerLetter;
+            return bytesPerLetter == 1 ? (char) (letters.get(index) & 0xff) : letters.getChar(index);
+        }
+        
+        /**
+         * Compares the word with the given id to word as String.compareTo.
+         */
+        int compare(int id, CharSequence word)
+        {
+            int common = Math.min(length, word.length());
+            for (int i = 0; i < common; i++) {
+                int difference = getLetter(id, i) - word.charAt(i);
+                if (difference != 0)
+                    return difference;
+            }
+            return length - word.length();
+        }
+    }
+    
+    /**
+     * A list view of the sorted words of one length.
+     */
+    private class SortedWords extends AbstractList<String> implements RandomAccess
+    {
+        private int length;
+        
+        SortedWords(int length)
+        {
+            this.length = length;
+        }
+        
+        public String get(int id)
+        {
+            Objects.checkIndex(id, size());
+            return getWord(length, id);
+        }
+        
+        public int size()
+        {
+            return getNumSortedWords(length);
+        }
+        
+        public int indexOf(Object word)
+        {
+            if (!(word instanceof String) || ((String) word).length() != length)
+                return -1;
+            int id = search(length, (String) word);
+            return id >= 0 ? id : -1;
+        }
+        
+        int binarySearch(String word)
+        {
+            return search(length, word);
+        }
+        
+        public int lastIndexOf(Object word)
+        {
+            return indexOf(word);
+        }
+        
+        public boolean contains(Object word)
+        {
+            return indexOf(word) >= 0;
+        }
+    }
+    
+    /**
+     * A list view of the words of one length in dictionary order.
+     */
+    private class OrderedWords extends AbstractList<String> implements RandomAccess
+    {
+        private int length;
+        
+        OrderedWords(int length)
+        {
+            this.length = length;
+        }
+        
+        public String get(int i)
+        {
+            Objects.checkIndex(i, size());
+            return getWord(length, getSortedId(length, i));
+        }
+        
+        public int size()
+        {
+            return getNumWords(length);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An offline job that scores every word of one length as the opening guess.
+ * 
+ * For each opening word the job works out, over every secret of that length:
+ * the expected number of candidates left after the opening, the size of the
+ * largest group of secrets that get the same feedback (the worst case), and the
+ * guess-count frequencies (as WordleAIAnalyser.getNumGuessesFrequency) that
+ * findWord would get if it opened with that word and then guessed the smallest
+ * consistent word as usual.
+ * 
+ * The openings are scored in chunks on a ForkJoinPool, which balances the chunks
+ * between threads by work stealing. If the job has a checkpoint file, the scores
+ * done so far are written to it every so often and when the job finishes, and a
+ * new job with the same file starts from them, so a run that was killed carries
+ * on where it stopped.
+ * 
+ * The openings are ranked by fewest unsolved secrets, then fewest guesses in total,
+ * then expected candidates, then worst case, then lexicographically. writeTable
+ * writes the ranking as a table that OpeningBookStrategy can load.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleOpeningSearch
+{
+    // The first bytes of a checkpoint file
+    private static final int CHECKPOINT_MAGIC = 0x574f5331; // "WOS1"
+    // Openings scored by one task, small enough for the threads to share out evenly
+    private static final int CHUNK_SIZE = 16;
+    
+    private WordleCandidateIndex index;
+    private int wordLength;
+    private File checkpointFile;
+    private long checkpointInterval;
+    private long lastCheckpoint;
+    private int numComputed;
+    // WordleDictionary.getHash of the words, to tell whether a checkpoint was written for them
+    private long wordsHash;
+    // Held while a checkpoint is written, so writes do not overlap but scoring goes on
+    private final Object checkpointLock = new Object();
+    
+    // The scores of each opening, by id, filled in when done[id] is set
+    private boolean[] done;
+    private double[] expectedRemaining;
+    private int[] worstCase;
+    private int[][] frequencies;
+    
+    /**
+     * Constructs a job that scores the openings of the given length in dictionary,
+     * without a checkpoint file.
+     */
+    public WordleOpeningSearch(WordleDictionary dictionary, int wordLength)
+    {
+        this.wordLength = wordLength;
+        index = dictionary.getCandidateIndex(wordLength);
+        wordsHash = dictionary.getHash(wordLength);
+        int n = index.size();
+        done = new boolean[n];
+        expectedRemaining = new double[n];
+        worstCase = new int[n];
+        frequencies = new int[n][];
+        checkpointInterval = 10000;
+    }
+    
+    /**
+     * Constructs a job that scores the openings of the given length in dictionary,
+     * checkpointing to checkpointFile. If the file exists, the scores in it are loaded
+     * and not worked out again. It must have been written for the same words.
+     */
+    public WordleOpeningSearch(WordleDictionary dictionary, int wordLength, File checkpointFile) throws IOException
+    {
+        this(dictionary, wordLength);
+        this.checkpointFile = checkpointFile;
+        if (checkpointFile.exists())
+            readCheckpoint();
+    }
+    
+    /**
+     * Sets the least time in milliseconds between checkpoints while the job runs.
+     */
+    public void setCheckpointInterval(long millis)
+    {
+        checkpointInterval = millis;
+    }
+    
+    /**
+     * Scores every opening that is not done yet, using the given number of threads.
+     */
+    public void run(int threads) throws IOException
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            run(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Scores every opening that is not done yet on pool.
+     */
+    public void run(ForkJoinPool pool) throws IOException
+    {
+        int[] secrets = WordleCandidateIndex.toIds(index.allCandidates());
+        lastCheckpoint = System.currentTimeMillis();
+        try {
+            pool.invoke(new ScoreTask(secrets, 0, secrets.length));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (checkpointFile != null)
+            writeCheckpoint();
+    }
+    
+    /**
+     * Returns the number of openings scored, including any loaded from the checkpoint.
+     */
+    public synchronized int getNumDone()
+    {
+        int count = 0;
+        for (boolean isDone: done) {
+            if (isDone)
+                count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the number of openings scored by this job, not counting any loaded from the checkpoint.
+     */
+    public synchronized int getNumComputed()
+    {
+        return numComputed;
+    }
+    
+    /**
+     * Returns the number of candidates expected to be left after opening with word,
+     * over every secret.
+     */
+    public synchronized double getExpectedRemaining(String word)
+    {
+        return expectedRemaining[doneId(word)];
+    }
+    
+    /**
+     * Returns the most candidates that can be left after opening with word.
+     */
+    public synchronized int getWorstCase(String word)
+    {
+        return worstCase[doneId(word)];
+    }
+    
+    /**
+     * Returns the guess-count frequencies of findWord opening with word, as
+     * WordleAIAnalyser.getNumGuessesFrequency.
+     */
+    public synchronized int[] getNumGuessesFrequency(String word)
+    {
+        return frequencies[doneId(word)].clone();
+    }
+    
+    /**
+     * Returns the openings scored so far, best first.
+     */
+    public synchronized ArrayList<String> getRanking()
+    {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < done.length; id++) {
+            if (done[id])
+                ids.add(id);
+        }
+        ids.sort(Comparator.comparing((Integer id) -> frequencies[id][6])
+            .thenComparing(id -> totalGuesses(frequencies[id]))
+            .thenComparing(id -> expectedRemaining[id])
+            .thenComparing(id -> worstCase[id]));
+        
+        ArrayList<String> ranking = new ArrayList<>();
+        for (int id: ids)
+            ranking.add(index.getWord(id));
+        return ranking;
+    }
+    
+    /**
+     * Writes the ranking to file as a tab-separated table, best first, after a
+     * "# length" line. Each row has the rank, word, expected candidates, worst case,
+     * mean guesses of the solved secrets and the comma-separated guess-count frequencies.
+     */
+    public synchronized void writeTable(File file) throws IOException
+    {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println("# length " + wordLength);
+            out.println("rank\tword\texpectedRemaining\tworstCase\tmeanGuesses\tfrequency");
+            int rank = 1;
+            for (String word: getRanking()) {
+                int id = index.indexOf(word);
+                int[] frequency = frequencies[id];
+                int solved = index.size() - frequency[6];
+                double mean = solved == 0 ? 0 : (double) totalGuesses(frequency) / solved;
+                StringBuilder row = new StringBuilder().append(rank++).append('\t').append(word);
+                row.append(String.format("\t%.4f\t%d\t%.4f\t", expectedRemaining[id], worstCase[id], mean));
+                for (int i = 0; i < frequency.length; i++)
+                    row.append(i == 0 ? "" : ",").append(frequency[i]);
+                out.println(row);
+            }
+        }
+    }
+    
+    /**
+     * Runs the job. The arguments are the word file, word length, checkpoint file,
+     * table file and optionally the number of threads (default all processors).
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4) {
+            System.err.println("Usage: java WordleOpeningSearch words length checkpoint table [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        WordleOpeningSearch search = new WordleOpeningSearch(new WordleDictionary(args[0]),
+            Integer.parseInt(args[1]), new File(args[2]));
+        System.out.println("Resuming with " + search.getNumDone() + " of " + search.index.size() + " openings done");
+        search.run(threads);
+        search.writeTable(new File(args[3]));
+        System.out.println("Best opening: " + search.getRanking().get(0));
+    }
+    
+    /**
+     * Scores the opening with the given id over secrets (every word, in order) and records it.
+     */
+    private void score(int opening, int[] secrets)
+    {
+        int[] frequency = new int[7];
+        frequency[0] = 1;
+        long sumOfSquares = 1;
+        int worst = 1;
+        for (int[] group: index.partition(opening, secrets)) {
+            sumOfSquares += (long) group.length * group.length;
+            worst = Math.max(worst, group.length);
+            addGuesses(group, 1, frequency);
+        }
+        
+        synchronized (this) {
+            expectedRemaining[opening] = (double) sumOfSquares / secrets.length;
+            worstCase[opening] = worst;
+            frequencies[opening] = frequency;
+            done[opening] = true;
+            numComputed++;
+        }
+    }
+    
+    /**
+     * Adds to frequency the guess counts of findWord for each of secrets, where secrets
+     * are the candidates left after depth guesses and findWord guesses the smallest.
+     */
+    private void addGuesses(int[] secrets, int depth, int[] frequency)
+    {
+        frequency[depth]++;
+        if (depth == 5) {
+            frequency[6] += secrets.length - 1;
+            return;
+        }
+        for (int[] group: index.partition(secrets[0], secrets))
+            addGuesses(group, depth + 1, frequency);
+    }
+    
+    private static long totalGuesses(int[] frequency)
+    {
+        long total = 0;
+        for (int i = 0; i < 6; i++)
+            total += (long) (i + 1) * frequency[i];
+        return total;
+    }
+    
+    private int doneId(String word)
+    {
+        int id = index.indexOf(word);
+        if (id < 0 || !done[id])
+            throw new IllegalArgumentException("Opening \"" + word + "\" has not been scored");
+        return id;
+    }
+    
+    /**
+     * Writes a checkpoint if one is due.
+     */
+    private void checkpoint() throws IOException
+    {
+        synchronized (this) {
+            if (System.currentTimeMillis() - lastCheckpoint < checkpointInterval)
+                return;
+            lastCheckpoint = System.currentTimeMillis();
+        }
+        writeCheckpoint();
+    }
+    
+    /**
+     * Writes the scores done so far to a temporary file, then moves it over the checkpoint
+     * file, so a run killed while writing leaves the last checkpoint as it was.
+     * The scores are copied first, so scoring tasks are only held up for the copy, not the IO.
+     */
+    private void writeCheckpoint() throws IOException
+    {
+        synchronized (checkpointLock) {
+            boolean[] doneCopy;
+            double[] expectedRemainingCopy;
+            int[] worstCaseCopy;
+            int[][] frequenciesCopy;
+            int numDone;
+            synchronized (this) {
+                doneCopy = done.clone();
+                expectedRemainingCopy = expectedRemaining.clone();
+                worstCaseCopy = worstCase.clone();
+                // Each opening's frequencies are never changed once set
+                frequenciesCopy = frequencies.clone();
+                numDone = getNumDone();
+            }
+            
+            File temporary = new File(checkpointFile.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(wordLength);
+                out.writeInt(index.size());
+                out.writeLong(wordsHash);
+                out.writeInt(numDone);
+                for (int id = 0; id < doneCopy.length; id++) {
+                    if (!doneCopy[id])
+                        continue;
+                    out.writeInt(id);
+                    out.writeDouble(expectedRemainingCopy[id]);
+                    out.writeInt(worstCaseCopy[id]);
+                    for (int count: frequenciesCopy[id])
+                        out.writeInt(count);
+                }
+            }
+            Files.move(temporary.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+    
+    private synchronized void readCheckpoint() throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC)
+                throw new IOException(checkpointFile + " is not an opening search checkpoint");
+            if (in.readInt() != wordLength || in.readInt() != index.size() || in.readLong() != wordsHash)
+                throw new IOException(checkpointFile + " was written for different words");
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                expectedRemaining[id] = in.readDouble();
+                worstCase[id] = in.readInt();
+                frequencies[id] = new int[7];
+                for (int j = 0; j < 7; j++)
+                    frequencies[id][j] = in.readInt();
+                done[id] = true;
+            }
+        }
+    }
+    
+    /**
+     * Scores the openings with ids from start to end - 1, splitting them into chunks.
+     */
+    private class ScoreTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private int[] secrets;
+        private int start;
+        private int end;
+        
+        ScoreTask(int[] secrets, int start, int end)
+        {
+            this.secrets = secrets;
+            this.start = start;
+            this.end = end;
+        }
+        
+        protected void compute()
+        {
+            if (end - start > CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ScoreTask(secrets, start, middle), new ScoreTask(secrets, middle, end));
+                return;
+            }
+            
+            for (int opening = start; opening < end; opening++) {
+                boolean isDone;
+                synchronized (WordleOpeningSearch.this) {
+                    isDone = done[opening];
+                }
+                if (!isDone)
+                    score(opening, secrets);
+            }
+            if (checkpointFile != null) {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
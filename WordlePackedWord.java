@@ -0,0 +1,146 @@
+/**
+ * Static methods for words packed into a long.
+ * 
+ * A packed word holds up to MAX_LENGTH lowercase letters, 5 bits each, with
+ * 'a' stored as 1 and 'z' as 26. The first letter is in the highest bits and
+ * unused letters are 0, so comparing two packed words as longs gives the same
+ * order as comparing the words with String.compareTo.
+ * 
+ * Together with a letter mask (see WordleGame.letterMask), checking a letter at
+ * a position or checking whether a word contains a letter takes a few bit operations.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordlePackedWord
+{
+    // The longest word that can be packed.
+    public static final int MAX_LENGTH = 12;
+    
+    private static final int BITS = 5;
+    private static final int LETTER = (1 << BITS) - 1;
+    // The lowest and highest bit of every letter
+    private static final long LOW = 0x0084210842108421L;
+    private static final long HIGH = LOW << (BITS - 1);
+    
+    private WordlePackedWord()
+    {
+        // Constructor is private because all methods are static
+    }
+    
+    /**
+     * Returns true if word can be packed: it has at most MAX_LENGTH letters, all 'a'-'z'.
+     */
+    public static boolean canPack(String word)
+    {
+        if (word.length() > MAX_LENGTH)
+            return false;
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            if (letter < 'a' || letter > 'z')
+                return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns word packed into a long.
+     */
+    public static long pack(String word)
+    {
+        if (!canPack(word))
+            throw new IllegalArgumentException("Cannot pack \"" + word + "\"");
+        long packed = 0;
+        for (int i = 0; i < MAX_LENGTH; i++) {
+            int letter = i < word.length() ? word.charAt(i) - 'a' + 1 : 0;
+            packed = (packed << BITS) | letter;
+        }
+        return packed;
+    }
+    
+    /**
+     * Returns the word in a packed word.
+     */
+    public static String unpack(long packed)
+    {
+        char[] letters = new char[length(packed)];
+        for (int i = 0; i < letters.length; i++)
+            letters[i] = letterAt(packed, i);
+        return new String(letters);
+    }
+    
+    /**
+     * Returns the number of letters in a packed word.
+     */
+    public static int length(long packed)
+    {
+        if (packed == 0)
+            return 0;
+        return MAX_LENGTH - Long.numberOfTrailingZeros(packed) / BITS;
+    }
+    
+    /**
+     * Returns the letter at a position of a packed word.
+     */
+    public static char letterAt(long packed, int position)
+    {
+        return (char) ('a' - 1 + code(packed, position));
+    }
+    
+    /**
+     * Returns a 26-bit mask with bit (c - 'a') set for every letter c in a packed word,
+     * the same as WordleGame.letterMask of the word.
+     */
+    public static int letterMask(long packed)
+    {
+        int mask = 0;
+        for (; packed != 0; packed >>>= BITS) {
+            int letter = (int) packed & LETTER;
+            if (letter != 0)
+                mask |= 1 << (letter - 1);
+        }
+        return mask;
+    }
+    
+    /**
+     * Returns true if a packed word contains the letter c.
+     * Every letter is compared at once, so there is no loop.
+     */
+    public static boolean contains(long packed, char c)
+    {
+        if (c < 'a' || c > 'z')
+            return false;
+        // A letter equal to c becomes 0, and (x - LOW) & ~x & HIGH is non-zero only if x has a 0 letter
+        long x = packed ^ ((c - 'a' + 1) * LOW);
+        return ((x - LOW) & ~x & HIGH) != 0;
+    }
+    
+    /**
+     * Returns the feedback code (see WordleGame.guessCode) that guessing guess
+     * would get if secret was the secret word, where secretMask is the letter mask of secret.
+     * Both words must have the same length.
+     */
+    public static long score(long guess, long secret, int secretMask)
+    {
+        long code = 0;
+        for (int i = length(secret) - 1; i >= 0; i--) {
+            int letter = code(guess, i);
+            int digit;
+            if (letter == code(secret, i))
+                digit = WordleGame.CORRECT;
+            else if ((secretMask & (1 << (letter - 1))) != 0)
+                digit = WordleGame.PRESENT;
+            else
+                digit = WordleGame.ABSENT;
+            code = code * 3 + digit;
+        }
+        return code;
+    }
+    
+    /**
+     * Returns the 1-26 code of the letter at a position, or 0 past the end of the word.
+     */
+    private static int code(long packed, int position)
+    {
+        return (int) (packed >>> ((MAX_LENGTH - 1 - position) * BITS)) & LETTER;
+    }
+}
@@ -0,0 +1,239 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Plays one game exactly like WordleAI.findWord, but finds each guess with a
+ * parallel search on a ForkJoinPool, for dictionaries so big that the time of a
+ * single game matters.
+ * 
+ * findWord keeps a candidate set (see WordleCandidateIndex) and, after each guess,
+ * filters all of it before taking its smallest word. Here the candidate set is split
+ * into chunks of consecutive ids, and each chunk is only filtered when the search
+ * reaches it. To find a guess, the chunks are searched in parallel for their
+ * smallest candidate: once one chunk has a hit, every chunk after it is cancelled,
+ * keeping the filters it has not had yet for a later search. Filters only remove
+ * candidates and can be applied in any order, so the smallest hit is always the word
+ * findWord would guess, and the guesses are the same.
+ * 
+ * Guesses only increase, so the chunks before the last guess are never searched again.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleParallelSearch
+{
+    // The default number of words in a chunk
+    private static final int DEFAULT_CHUNK_SIZE = 32768;
+    
+    private int wordLength;
+    private WordleCandidateIndex index;
+    private ForkJoinPool pool;
+    // The number of longs of the candidate set in a chunk
+    private int chunkLongs;
+    private LongAdder chunksFiltered;
+    private LongAdder chunksCancelled;
+    
+    /**
+     * Constructs a search over the words in dictionary with the given length,
+     * run on the common ForkJoinPool.
+     */
+    public WordleParallelSearch(WordleDictionary dictionary, int wordLength)
+    {
+        this(dictionary, wordLength, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Constructs a search over the words in dictionary with the given length, run on pool,
+     * that splits the words into chunks of chunkSize (rounded up to a multiple of 64).
+     */
+    public WordleParallelSearch(WordleDictionary dictionary, int wordLength, ForkJoinPool pool, int chunkSize)
+    {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.wordLength = wordLength;
+        this.pool = pool;
+        index = dictionary.getCandidateIndex(wordLength);
+        chunkLongs = (chunkSize + 63) >>> 6;
+        chunksFiltered = new LongAdder();
+        chunksCancelled = new LongAdder();
+    }
+    
+    /**
+     * Returns the guesses WordleAI.findWord would make to find the secret word of game,
+     * in the order they were made, or null if it is not found in 6 guesses.
+     */
+    public ArrayList<String> findWord(WordleGame game)
+    {
+        if (game.getWordLength() != wordLength)
+            throw new IllegalArgumentException("The search has word length " + wordLength
+                + " but the game has word length " + game.getWordLength());
+        
+        ArrayList<String> guessedWords = new ArrayList<>();
+        long solved = WordleGame.allCorrect(wordLength);
+        Candidates candidates = new Candidates();
+        int next = candidates.findFirst();
+        
+        while (next >= 0) {
+            String currentWord = index.getWord(next);
+            long code = game.guessCode(currentWord);
+            guessedWords.add(currentWord);
+            
+            if (code == solved)
+                return guessedWords;
+            if (game.getNumGuesses() == 6)
+                break;
+            
+            candidates.addGuess(currentWord, code, next);
+            next = candidates.findFirst();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Returns the word length of the search.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of chunks the candidate set of a game is split into.
+     */
+    public int getNumChunks()
+    {
+        return (index.allCandidates().length + chunkLongs - 1) / chunkLongs;
+    }
+    
+    /**
+     * Returns the number of times a chunk has been filtered and searched, over every game.
+     */
+    public long getNumChunksFiltered()
+    {
+        return chunksFiltered.sum();
+    }
+    
+    /**
+     * Returns the number of times a chunk was skipped because an earlier chunk had a hit, over every game.
+     */
+    public long getNumChunksCancelled()
+    {
+        return chunksCancelled.sum();
+    }
+    
+    /**
+     * The candidate set of one game, with each chunk filtered by some of the guesses so far.
+     */
+    private class Candidates
+    {
+        private long[] bits;
+        // The number of guesses each chunk has been filtered by
+        private int[] levels;
+        private String[] guesses;
+        private long[] codes;
+        private int numGuesses;
+        // Every chunk before this one has no candidates
+        private int firstChunk;
+        // The smallest hit found by the current search
+        private AtomicInteger best;
+        
+        Candidates()
+        {
+            bits = index.allCandidates();
+            levels = new int[(bits.length + chunkLongs - 1) / chunkLongs];
+            guesses = new String[6];
+            codes = new long[6];
+            best = new AtomicInteger();
+        }
+        
+        /**
+         * Adds a guess and the feedback code it got, guessing the word with id guessId.
+         */
+        void addGuess(String guess, long code, int guessId)
+        {
+            guesses[numGuesses] = guess;
+            codes[numGuesses] = code;
+            numGuesses++;
+            firstChunk = (guessId >>> 6) / chunkLongs;
+        }
+        
+        /**
+         * Returns the smallest candidate, or -1 if there are none.
+         */
+        int findFirst()
+        {
+            best.set(Integer.MAX_VALUE);
+            int numChunks = levels.length - firstChunk;
+            if (numChunks <= 0)
+                return -1;
+            ChunkSearch search = new ChunkSearch(firstChunk, levels.length);
+            int first = numChunks == 1 ? search.compute() : pool.invoke(search);
+            return first == Integer.MAX_VALUE ? -1 : first;
+        }
+        
+        /**
+         * Filters chunk by the guesses it has not had yet and returns its smallest candidate,
+         * or Integer.MAX_VALUE if it has none.
+         */
+        int searchChunk(int chunk)
+        {
+            int from = chunk * chunkLongs;
+            int to = Math.min(from + chunkLongs, bits.length);
+            for (int i = levels[chunk]; i < numGuesses; i++)
+                index.filter(bits, guesses[i], codes[i], from, to);
+            levels[chunk] = numGuesses;
+            chunksFiltered.increment();
+            
+            for (int i = from; i < to; i++) {
+                if (bits[i] != 0)
+                    return (i << 6) + Long.numberOfTrailingZeros(bits[i]);
+            }
+            return Integer.MAX_VALUE;
+        }
+        
+        /**
+         * Searches the chunks from first up to (not including) last, returning the smallest
+         * candidate in them, or Integer.MAX_VALUE if there is none or an earlier chunk has a hit.
+         */
+        private class ChunkSearch extends RecursiveTask<Integer>
+        {
+            private static final long serialVersionUID = 1L;
+            
+            private int first;
+            private int last;
+            
+            ChunkSearch(int first, int last)
+            {
+                this.first = first;
+                this.last = last;
+            }
+            
+            protected Integer compute()
+            {
+                if (last - first == 1) {
+                    // A hit before this chunk is smaller than anything in it
+                    if (best.get() < first * chunkLongs * 64) {
+                        chunksCancelled.increment();
+                        return Integer.MAX_VALUE;
+                    }
+                    int hit = searchChunk(first);
+                    if (hit != Integer.MAX_VALUE)
+                        best.accumulateAndGet(hit, Math::min);
+                    return hit;
+                }
+                
+                int middle = (first + last) >>> 1;
+                ChunkSearch right = new ChunkSearch(middle, last);
+                right.fork();
+                int hit = new ChunkSearch(first, middle).compute();
+                // Every chunk on the right comes after the hit, so it is not needed if it has not started
+                if (hit != Integer.MAX_VALUE && right.tryUnfork()) {
+                    chunksCancelled.add(last - middle);
+                    return hit;
+                }
+                return Math.min(hit, right.join());
+            }
+        }
+    }
+}
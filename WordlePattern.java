@@ -0,0 +1,215 @@
+/**
+ * Constraints on the letters of a word, for asking a WordlePatternIndex which words fit them.
+ * 
+ * A pattern has a word length and any number of constraints: a letter at a position,
+ * a letter not at a position, a letter somewhere in the word, and a letter nowhere in
+ * the word. For example "5 letters, 'a' at position 2, contains 'e' but not at 4,
+ * no 'r', 's' or 't'" is
+ * 
+ *     new WordlePattern(5).at(2, 'a').contains('e').notAt(4, 'e').excludes("rst")
+ * 
+ * Letters must be 'a'-'z' and positions start at 0. Each method returns the pattern,
+ * so constraints can be chained.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordlePattern
+{
+    private int length;
+    // The letter each position must have, or 0 if it can have any
+    private char[] fixed;
+    // For each position, a letter mask (see WordleGame.letterMask) of the letters it must not have
+    private int[] notAt;
+    // Letter masks of the letters every word must contain, and must not contain
+    private int required;
+    private int excluded;
+    // Set if two different letters are required at the same position, so nothing matches
+    private boolean impossible;
+    
+    /**
+     * Constructs a pattern with no constraints matching every word with the given length.
+     */
+    public WordlePattern(int length)
+    {
+        if (length < 0)
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        this.length = length;
+        fixed = new char[length];
+        notAt = new int[length];
+    }
+    
+    /**
+     * Requires letter at position.
+     */
+    public WordlePattern at(int position, char letter)
+    {
+        checkPosition(position);
+        int bit = bit(letter);
+        if (fixed[position] != 0 && fixed[position] != letter)
+            impossible = true;
+        fixed[position] = letter;
+        required |= bit;
+        return this;
+    }
+    
+    /**
+     * Requires a letter other than letter at position.
+     */
+    public WordlePattern notAt(int position, char letter)
+    {
+        checkPosition(position);
+        notAt[position] |= bit(letter);
+        return this;
+    }
+    
+    /**
+     * Requires letter somewhere in the word.
+     */
+    public WordlePattern contains(char letter)
+    {
+        required |= bit(letter);
+        return this;
+    }
+    
+    /**
+     * Requires that letter is nowhere in the word.
+     */
+    public WordlePattern excludes(char letter)
+    {
+        excluded |= bit(letter);
+        return this;
+    }
+    
+    /**
+     * Requires that none of the letters in letters are in the word.
+     */
+    public WordlePattern excludes(String letters)
+    {
+        for (int i = 0; i < letters.length(); i++)
+            excludes(letters.charAt(i));
+        return this;
+    }
+    
+    /**
+     * Adds the constraints that guess getting result (as returned by WordleGame.guessWord)
+     * puts on the secret word. A word then matches the pattern exactly when
+     * WordleAI.isConsistent(guess, result, word) is true, for every feedback added.
+     */
+    public WordlePattern addFeedback(String guess, String result)
+    {
+        if (guess.length() != length || result.length() != length)
+            throw new IllegalArgumentException("Guess and result must have length " + length + ": " + guess + ":" + result);
+        for (int i = 0; i < length; i++) {
+            char letter = guess.charAt(i);
+            switch (result.charAt(i)) {
+                case '*':
+                    at(i, letter);
+                    break;
+                case '.':
+                    notAt(i, letter);
+                    contains(letter);
+                    break;
+                default:
+                    excludes(letter);
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Returns the word length of the pattern.
+     */
+    public int getLength()
+    {
+        return length;
+    }
+    
+    /**
+     * Returns true if word fits every constraint of the pattern.
+     */
+    public boolean matches(String word)
+    {
+        if (word.length() != length || impossible)
+            return false;
+        int letters = WordleGame.letterMask(word);
+        if ((letters & required) != required || (letters & excluded) != 0)
+            return false;
+        for (int i = 0; i < length; i++) {
+            char letter = word.charAt(i);
+            if (!allows(i, letter))
+                return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns true if letter can be at position, as far as the constraints on position go.
+     */
+    boolean allows(int position, char letter)
+    {
+        if (impossible || (fixed[position] != 0 && fixed[position] != letter))
+            return false;
+        int bit = letter >= 'a' && letter <= 'z' ? 1 << (letter - 'a') : 0;
+        return (notAt[position] & bit) == 0 && (excluded & bit) == 0;
+    }
+    
+    /**
+     * Returns the letter mask of the letters every matching word contains.
+     */
+    int getRequired()
+    {
+        return required;
+    }
+    
+    /**
+     * Returns the letter mask of the letters no matching word contains.
+     */
+    int getExcluded()
+    {
+        return excluded;
+    }
+    
+    /**
+     * Returns the last position with a constraint of its own, or -1 if there is none.
+     */
+    int getLastConstrainedPosition()
+    {
+        for (int i = length - 1; i >= 0; i--) {
+            if (fixed[i] != 0 || notAt[i] != 0)
+                return i;
+        }
+        return -1;
+    }
+    
+    public String toString()
+    {
+        StringBuilder pattern = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            pattern.append(fixed[i] != 0 ? fixed[i] : '?');
+        pattern.append(" contains ").append(letters(required)).append(" excludes ").append(letters(excluded));
+        return pattern.toString();
+    }
+    
+    private static String letters(int mask)
+    {
+        StringBuilder letters = new StringBuilder();
+        for (int i = 0; i < 26; i++) {
+            if ((mask & (1 << i)) != 0)
+                letters.append((char) ('a' + i));
+        }
+        return letters.toString();
+    }
+    
+    private static int bit(char letter)
+    {
+        if (letter < 'a' || letter > 'z')
+            throw new IllegalArgumentException("Pattern letters must be 'a'-'z': " + letter);
+        return 1 << (letter - 'a');
+    }
+    
+    private void checkPosition(int position)
+    {
+        if (position < 0 || position >= length)
+            throw new IllegalArgumentException("Position " + position + " is outside a word of length " + length);
+    }
+}
@@ -0,0 +1,300 @@
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.*;
+
+/**
+ * A trie over the sorted words of one length, for finding the words that fit a WordlePattern.
+ * 
+ * The trie is stored in flat int arrays rather than node objects. Each node is a prefix
+ * shared by a range of consecutive word ids, and keeps the letter mask (see
+ * WordleGame.letterMask) of every letter that comes after the prefix in any of its words.
+ * A query walks the trie in lexicographic order and skips a whole subtree as soon as the
+ * next letter breaks a constraint, or the subtree's words cannot have the letters the
+ * pattern still needs. So a query only visits the prefixes of words that may still match,
+ * rather than every word. A subtree whose words all match is counted from its id range
+ * without being walked.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordlePatternIndex
+{
+    private int wordLength;
+    private List<String> words;
+    private int numNodes;
+    // The letter leading to each node, its first child and next sibling (-1 if none),
+    // its first word id and number of words, and the letter mask of its words from its letter on.
+    // Node 0 is the root, the empty prefix.
+    private char[] letters;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] firstWord;
+    private int[] numWords;
+    private int[] suffixLetters;
+    
+    /**
+     * Builds a trie over words, which must all have length wordLength and be sorted without duplicates.
+     */
+    public WordlePatternIndex(int wordLength, List<String> words)
+    {
+        this.wordLength = wordLength;
+        this.words = words;
+        int capacity = 16;
+        letters = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        firstWord = new int[capacity];
+        numWords = new int[capacity];
+        suffixLetters = new int[capacity];
+        addNode((char) 0, 0);
+        
+        // path[d] is the node of the previous word's first d letters
+        int[] path = new int[wordLength + 1];
+        int[] suffixMasks = new int[wordLength + 1];
+        String previous = null;
+        for (int id = 0; id < words.size(); id++) {
+            String word = words.get(id);
+            suffixMasks[wordLength] = 0;
+            for (int i = wordLength - 1; i >= 0; i--)
+                suffixMasks[i] = suffixMasks[i + 1] | letterBit(word.charAt(i));
+            
+            int common = 0;
+            while (previous != null && common < wordLength && previous.charAt(common) == word.charAt(common))
+                common++;
+            for (int depth = 0; depth <= common; depth++) {
+                numWords[path[depth]]++;
+                suffixLetters[path[depth]] |= suffixMasks[Math.max(0, depth - 1)];
+            }
+            for (int depth = common + 1; depth <= wordLength; depth++) {
+                int node = addNode(word.charAt(depth - 1), id);
+                int parent = path[depth - 1];
+                // Words are sorted, so the new child comes after the previous word's child of the same parent
+                if (depth == common + 1 && firstChild[parent] >= 0)
+                    nextSibling[path[depth]] = node;
+                else
+                    firstChild[parent] = node;
+                numWords[node] = 1;
+                suffixLetters[node] = suffixMasks[depth - 1];
+                path[depth] = node;
+            }
+            previous = word;
+        }
+    }
+    
+    /**
+     * Returns the word length of this index.
+     */
+    public int getWordLength()
+    {
+        return wordLength;
+    }
+    
+    /**
+     * Returns the number of nodes in the trie, including the root.
+     */
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+    
+    /**
+     * Calls action on each word matching pattern, in lexicographic order, until it returns false.
+     * Returns the number of words action was called on.
+     */
+    public int forEachMatch(WordlePattern pattern, Predicate<String> action)
+    {
+        int count = 0;
+        MatchIterator matches = new MatchIterator(pattern);
+        while (matches.hasNext()) {
+            count++;
+            if (!action.test(matches.next()))
+                break;
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the first limit words matching pattern, in lexicographic order.
+     */
+    public ArrayList<String> findMatches(WordlePattern pattern, int limit)
+    {
+        ArrayList<String> matches = new ArrayList<>();
+        if (limit > 0)
+            forEachMatch(pattern, word -> matches.add(word) && matches.size() < limit);
+        return matches;
+    }
+    
+    /**
+     * Returns every word matching pattern, in lexicographic order.
+     */
+    public ArrayList<String> findMatches(WordlePattern pattern)
+    {
+        return findMatches(pattern, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns the ids of the words matching pattern (positions in the sorted words), in order.
+     */
+    public int[] findMatchIds(WordlePattern pattern)
+    {
+        IntStream.Builder ids = IntStream.builder();
+        MatchIterator matches = new MatchIterator(pattern);
+        while (matches.hasNext())
+            ids.add(matches.nextId());
+        return ids.build().toArray();
+    }
+    
+    /**
+     * Returns a sequential stream of the words matching pattern, in lexicographic order.
+     * The trie is only walked as far as the stream is read.
+     */
+    public Stream<String> streamMatches(WordlePattern pattern)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MatchIterator(pattern),
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Returns the number of words matching pattern, without making any of them.
+     */
+    public int countMatches(WordlePattern pattern)
+    {
+        if (!canMatch(pattern))
+            return 0;
+        return count(0, 0, 0, pattern, pattern.getLastConstrainedPosition());
+    }
+    
+    /**
+     * Counts the matching words below node, which is at depth with the letters in pathLetters above it.
+     */
+    private int count(int node, int depth, int pathLetters, WordlePattern pattern, int lastConstrained)
+    {
+        int missing = pattern.getRequired() & ~pathLetters;
+        // Every word below matches if nothing is left to check
+        if (depth > lastConstrained && missing == 0 && (suffixLetters[node] & pattern.getExcluded()) == 0)
+            return numWords[node];
+        if (depth == wordLength)
+            return missing == 0 ? 1 : 0;
+        
+        int count = 0;
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            if (canEnter(child, depth, pathLetters, pattern))
+                count += count(child, depth + 1, pathLetters | letterBit(letters[child]), pattern, lastConstrained);
+        }
+        return count;
+    }
+    
+    /**
+     * Returns true if some word below child, at depth below a node with pathLetters above it, may match.
+     */
+    private boolean canEnter(int child, int depth, int pathLetters, WordlePattern pattern)
+    {
+        if (!pattern.allows(depth, letters[child]))
+            return false;
+        int missing = pattern.getRequired() & ~pathLetters;
+        return (missing & ~suffixLetters[child]) == 0;
+    }
+    
+    private boolean canMatch(WordlePattern pattern)
+    {
+        return pattern.getLength() == wordLength && numNodes > 0;
+    }
+    
+    private int addNode(char letter, int word)
+    {
+        if (numNodes == letters.length) {
+            int capacity = numNodes * 2;
+            letters = Arrays.copyOf(letters, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            firstWord = Arrays.copyOf(firstWord, capacity);
+            numWords = Arrays.copyOf(numWords, capacity);
+            suffixLetters = Arrays.copyOf(suffixLetters, capacity);
+        }
+        letters[numNodes] = letter;
+        firstChild[numNodes] = -1;
+        nextSibling[numNodes] = -1;
+        firstWord[numNodes] = word;
+        return numNodes++;
+    }
+    
+    private static int letterBit(char letter)
+    {
+        return letter >= 'a' && letter <= 'z' ? 1 << (letter - 'a') : 0;
+    }
+    
+    /**
+     * Walks the trie depth first, in lexicographic order, stopping at each matching word.
+     */
+    private class MatchIterator implements Iterator<String>
+    {
+        private WordlePattern pattern;
+        // The node being tried at each depth, and the letters above it
+        private int[] nodes;
+        private int[] pathLetters;
+        private int depth;
+        // The id of the next match, or -1 if there are no more, or -2 if it has not been found yet
+        private int next;
+        
+        MatchIterator(WordlePattern pattern)
+        {
+            this.pattern = pattern;
+            nodes = new int[wordLength + 1];
+            pathLetters = new int[wordLength + 2];
+            depth = 0;
+            nodes[0] = canMatch(pattern) ? firstChild[0] : -1;
+            next = -2;
+            if (wordLength == 0)
+                next = canMatch(pattern) && numWords[0] > 0 ? 0 : -1;
+        }
+        
+        public boolean hasNext()
+        {
+            if (next == -2)
+                next = findNext();
+            return next >= 0;
+        }
+        
+        public String next()
+        {
+            return words.get(nextId());
+        }
+        
+        int nextId()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int id = next;
+            next = wordLength == 0 ? -1 : -2;
+            return id;
+        }
+        
+        /**
+         * Returns the id of the next matching word, or -1 if there are no more.
+         */
+        private int findNext()
+        {
+            while (depth >= 0) {
+                int node = nodes[depth];
+                if (node < 0) {
+                    // Every child at this depth has been tried, so go back up to the next sibling
+                    depth--;
+                    if (depth >= 0)
+                        nodes[depth] = nextSibling[nodes[depth]];
+                    continue;
+                }
+                if (!canEnter(node, depth, pathLetters[depth], pattern)) {
+                    nodes[depth] = nextSibling[node];
+                    continue;
+                }
+                if (depth == wordLength - 1) {
+                    nodes[depth] = nextSibling[node];
+                    return firstWord[node];
+                }
+                pathLetters[depth + 1] = pathLetters[depth] | letterBit(letters[node]);
+                depth++;
+                nodes[depth] = firstChild[node];
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the results of a stream of experiments (see WordleExperimentStream).
+ * 
+ * Results arrive in batches, in the order their secret words came from the source,
+ * and a sink is only ever given one batch at a time. A sink should not keep the
+ * results, so that a stream of any length runs in the same memory.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public interface WordleResultSink
+{
+    /**
+     * Takes the next batch of results.
+     */
+    void accept(List<WordleExperimentResult> batch) throws IOException;
+}
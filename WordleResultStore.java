@@ -0,0 +1,160 @@
+import java.util.*;
+
+/**
+ * Stores experiment results compactly, in columns of primitive arrays.
+ * 
+ * Words are stored as ids into a sorted word table (usually the words of one
+ * length in the dictionary). For each result the store keeps the id of the
+ * secret word, whether it was solved, and where its guesses start in one flat
+ * array of guess ids. WordleExperimentResult objects are only made when a
+ * result is asked for with get.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleResultStore
+{
+    private List<String> words;
+    // Words that were stored but are not in words, with ids after the last word.
+    private ArrayList<String> extraWords;
+    private HashMap<String, Integer> extraIds;
+    
+    private int size;
+    private int[] secretIds;
+    // Bit i is set if result i was solved.
+    private long[] solved;
+    // The guesses of result i are guessIds[guessOffsets[i]] to guessIds[guessOffsets[i + 1] - 1].
+    private int[] guessOffsets;
+    private int[] guessIds;
+    
+    /**
+     * Constructs an empty store whose word ids are positions in words,
+     * which must be sorted without duplicates.
+     */
+    public WordleResultStore(List<String> words)
+    {
+        this.words = words;
+        extraWords = new ArrayList<>();
+        extraIds = new HashMap<>();
+        secretIds = new int[16];
+        solved = new long[1];
+        guessOffsets = new int[17];
+        guessIds = new int[64];
+    }
+    
+    /**
+     * Adds a result, given its secret word and guesses (null if the word was not solved).
+     */
+    public void add(String word, List<String> guesses)
+    {
+        if (size == secretIds.length) {
+            secretIds = Arrays.copyOf(secretIds, size * 2);
+            guessOffsets = Arrays.copyOf(guessOffsets, size * 2 + 1);
+            solved = Arrays.copyOf(solved, (size * 2 + 63) >>> 6);
+        }
+        
+        int offset = guessOffsets[size];
+        if (guesses != null) {
+            if (offset + guesses.size() > guessIds.length)
+                guessIds = Arrays.copyOf(guessIds, Math.max(guessIds.length * 2, offset + guesses.size()));
+            for (String guess: guesses)
+                guessIds[offset++] = idOf(guess);
+            solved[size >>> 6] |= 1L << size;
+        }
+        
+        secretIds[size] = idOf(word);
+        guessOffsets[size + 1] = offset;
+        size++;
+    }
+    
+    /**
+     * Adds a result.
+     */
+    public void add(WordleExperimentResult result)
+    {
+        add(result.getWord(), result.getGuesses());
+    }
+    
+    /**
+     * Returns the number of results stored.
+     */
+    public int size()
+    {
+        return size;
+    }
+    
+    /**
+     * Returns the secret word of result index.
+     */
+    public String getWord(int index)
+    {
+        checkIndex(index);
+        return wordOf(secretIds[index]);
+    }
+    
+    /**
+     * Returns true if result index was solved.
+     */
+    public boolean isSolved(int index)
+    {
+        checkIndex(index);
+        return (solved[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    /**
+     * Returns the number of guesses made in result index, or 0 if it was not solved.
+     */
+    public int getNumGuesses(int index)
+    {
+        checkIndex(index);
+        return guessOffsets[index + 1] - guessOffsets[index];
+    }
+    
+    /**
+     * Returns a new list of the guesses of result index, or null if it was not solved.
+     */
+    public ArrayList<String> getGuesses(int index)
+    {
+        if (!isSolved(index))
+            return null;
+        ArrayList<String> guesses = new ArrayList<>(getNumGuesses(index));
+        for (int i = guessOffsets[index]; i < guessOffsets[index + 1]; i++)
+            guesses.add(wordOf(guessIds[i]));
+        return guesses;
+    }
+    
+    /**
+     * Returns a new WordleExperimentResult for result index.
+     */
+    public WordleExperimentResult get(int index)
+    {
+        return new WordleExperimentResult(getWord(index), getGuesses(index));
+    }
+    
+    private int idOf(String word)
+    {
+        int id = WordleOffHeapWords.binarySearch(words, word);
+        if (id >= 0)
+            return id;
+        
+        Integer extraId = extraIds.get(word);
+        if (extraId == null) {
+            extraId = words.size() + extraWords.size();
+            extraWords.add(word);
+            extraIds.put(word, extraId);
+        }
+        return extraId;
+    }
+    
+    private String wordOf(int id)
+    {
+        if (id < words.size())
+            return words.get(id);
+        return extraWords.get(id - words.size());
+    }
+    
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A WordleResultSink that writes each result to a file as it arrives.
+ * 
+ * A CSV file has a header line, then one line per result: the secret word, the
+ * number of guesses (0 if it was not solved) and the guesses separated by spaces.
+ * A binary file starts with a magic number, then holds each result as the secret
+ * word, the number of guesses as a byte and the guesses, with the words written
+ * by DataOutputStream.writeUTF. Binary files can be streamed back with read.
+ * 
+ * Output is buffered, so the writer must be closed when the stream is finished.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleResultWriter implements WordleResultSink, Closeable
+{
+    // "WRS1"
+    private static final int MAGIC = 0x57525331;
+    
+    private DataOutputStream out;
+    private boolean binary;
+    
+    /**
+     * Constructs a writer that writes results to file, in binary if binary is true and as CSV otherwise.
+     */
+    public WordleResultWriter(File file, boolean binary) throws IOException
+    {
+        this.binary = binary;
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        if (binary)
+            out.writeInt(MAGIC);
+        else
+            out.writeBytes("word,numGuesses,guesses\n");
+    }
+    
+    /**
+     * Writes a batch of results.
+     */
+    public void accept(List<WordleExperimentResult> batch) throws IOException
+    {
+        for (WordleExperimentResult result: batch) {
+            List<String> guesses = result.getGuesses() == null ? Collections.emptyList() : result.getGuesses();
+            if (binary) {
+                out.writeUTF(result.getWord());
+                out.writeByte(guesses.size());
+                for (String guess: guesses)
+                    out.writeUTF(guess);
+            } else {
+                // Words are written as UTF-8, so they are not limited to ASCII
+                out.write((result.getWord() + "," + guesses.size() + "," + String.join(" ", guesses) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+    
+    /**
+     * Flushes and closes the file.
+     */
+    public void close() throws IOException
+    {
+        out.close();
+    }
+    
+    /**
+     * Reads the results in a binary file written by a WordleResultWriter and passes
+     * them to sink in batches of batchSize, so the file is never held in memory.
+     */
+    public static void read(File file, WordleResultSink sink, int batchSize) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a binary result file: " + file);
+            
+            ArrayList<WordleExperimentResult> batch = new ArrayList<>(batchSize);
+            while (true) {
+                String word;
+                try {
+                    word = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                int numGuesses = in.readUnsignedByte();
+                ArrayList<String> guesses = null;
+                if (numGuesses > 0) {
+                    guesses = new ArrayList<>(numGuesses);
+                    for (int i = 0; i < numGuesses; i++)
+                        guesses.add(in.readUTF());
+                }
+                batch.add(new WordleExperimentResult(word, guesses));
+                
+                if (batch.size() == batchSize) {
+                    sink.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty())
+                sink.accept(batch);
+        }
+    }
+}
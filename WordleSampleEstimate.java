@@ -0,0 +1,204 @@
+import java.util.List;
+
+/**
+ * Running estimates of the guess-count frequencies of a whole sweep, made from
+ * experiments on a random sample of its words drawn without replacement.
+ * 
+ * Each frequency is estimated as a fraction of the words, with a confidence
+ * interval from the normal approximation (with the Agresti-Coull adjustment, so
+ * a fraction that has not been seen yet still gets an honest interval) and the
+ * finite population correction, so the interval shrinks to nothing once every
+ * word has been sampled.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleSampleEstimate implements WordleResultSink
+{
+    private int populationSize;
+    private double confidence;
+    // The z-score of confidence
+    private double z;
+    private int numSamples;
+    private int[] numGuessesFrequency;
+    
+    /**
+     * Constructs an estimate for a sweep over populationSize words, with no samples yet,
+     * whose confidence intervals have the given confidence level (such as 0.95).
+     */
+    public WordleSampleEstimate(int populationSize, double confidence)
+    {
+        if (confidence <= 0 || confidence >= 1)
+            throw new IllegalArgumentException("Confidence must be between 0 and 1: " + confidence);
+        this.populationSize = populationSize;
+        this.confidence = confidence;
+        z = zScore(confidence);
+        numGuessesFrequency = new int[7];
+    }
+    
+    /**
+     * Adds the result of an experiment on a sampled word.
+     */
+    public void record(WordleExperimentResult result)
+    {
+        if (result.getGuesses() == null)
+            numGuessesFrequency[6]++;
+        else
+            numGuessesFrequency[result.getGuesses().size() - 1]++;
+        numSamples++;
+    }
+    
+    /**
+     * Adds the results of experiments on sampled words.
+     */
+    public void accept(List<WordleExperimentResult> batch)
+    {
+        for (WordleExperimentResult result: batch)
+            record(result);
+    }
+    
+    /**
+     * Returns the number of words sampled.
+     */
+    public int getNumSamples()
+    {
+        return numSamples;
+    }
+    
+    /**
+     * Returns the number of words in the whole sweep.
+     */
+    public int getPopulationSize()
+    {
+        return populationSize;
+    }
+    
+    /**
+     * Returns the confidence level of the intervals.
+     */
+    public double getConfidence()
+    {
+        return confidence;
+    }
+    
+    /**
+     * Returns the number of sampled words in each entry of getNumGuessesFrequency.
+     */
+    public int[] getSampleFrequency()
+    {
+        return numGuessesFrequency.clone();
+    }
+    
+    /**
+     * Returns the estimated fraction of all words in entry index of
+     * WordleAIAnalyser.getNumGuessesFrequency, or 0 if nothing has been sampled.
+     */
+    public double getFraction(int index)
+    {
+        return numSamples == 0 ? 0 : (double) numGuessesFrequency[index] / numSamples;
+    }
+    
+    /**
+     * Returns the half-width of the confidence interval of getFraction(index).
+     */
+    public double getHalfWidth(int index)
+    {
+        if (numSamples >= populationSize)
+            return 0;
+        double n = numSamples + z * z;
+        double p = (numGuessesFrequency[index] + z * z / 2) / n;
+        double correction = populationSize > 1 ? (double) (populationSize - numSamples) / (populationSize - 1) : 0;
+        return z * Math.sqrt(p * (1 - p) / n * correction);
+    }
+    
+    /**
+     * Returns the largest half-width of any fraction's confidence interval.
+     */
+    public double getMaxHalfWidth()
+    {
+        double max = 0;
+        for (int i = 0; i < numGuessesFrequency.length; i++)
+            max = Math.max(max, getHalfWidth(i));
+        return max;
+    }
+    
+    /**
+     * Returns true if every fraction is known to within precision, or every word has been sampled.
+     */
+    public boolean isPrecise(double precision)
+    {
+        return getMaxHalfWidth() <= precision;
+    }
+    
+    /**
+     * Returns the estimated fraction of words that are not solved.
+     */
+    public double getUnsolvedRate()
+    {
+        return getFraction(6);
+    }
+    
+    /**
+     * Returns the half-width of the confidence interval of getUnsolvedRate.
+     */
+    public double getUnsolvedRateHalfWidth()
+    {
+        return getHalfWidth(6);
+    }
+    
+    /**
+     * Returns the estimate of WordleAIAnalyser.getNumGuessesFrequency for the whole sweep:
+     * each fraction times the number of words, rounded.
+     */
+    public int[] getEstimatedNumGuessesFrequency()
+    {
+        int[] estimate = new int[numGuessesFrequency.length];
+        for (int i = 0; i < estimate.length; i++)
+            estimate[i] = (int) Math.round(getFraction(i) * populationSize);
+        return estimate;
+    }
+    
+    /**
+     * Returns each fraction with its confidence interval, one per line.
+     */
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d of %d words sampled, %.0f%% confidence%n", numSamples, populationSize,
+                                  confidence * 100));
+        for (int i = 0; i < numGuessesFrequency.length; i++) {
+            text.append(String.format("%-9s %.4f +/- %.4f%n", i < 6 ? (i + 1) + " guess" + (i == 0 ? "" : "es")
+                : "unsolved", getFraction(i), getHalfWidth(i)));
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Returns z such that a standard normal variable is within z of 0 with probability confidence,
+     * found by bisection on the normal distribution function.
+     */
+    private static double zScore(double confidence)
+    {
+        double low = 0;
+        double high = 40;
+        for (int i = 0; i < 100; i++) {
+            double middle = (low + high) / 2;
+            if (erf(middle / Math.sqrt(2)) < confidence)
+                low = middle;
+            else
+                high = middle;
+        }
+        return (low + high) / 2;
+    }
+    
+    /**
+     * Returns the error function of x >= 0, to within 1.2e-7 (Numerical Recipes' erfc approximation).
+     */
+    private static double erf(double x)
+    {
+        double t = 1 / (1 + x / 2);
+        double erfc = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+            + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851973
+            + t * (-0.82215223 + t * 0.17087277)))))))));
+        return 1 - erfc;
+    }
+}
@@ -0,0 +1,320 @@
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a sweep over the words of one length on several WordleShardWorkers, each
+ * usually in its own JVM, and merges their statistics into one result.
+ * 
+ * The words (in dictionary order, as WordleAIAnalyser.runExperimentsWithAllWords
+ * uses them) are split into shards with the same number of words each, whatever
+ * their letters. Each worker takes the next shard waiting, runs it, and streams the
+ * statistics of each batch back as it goes. If a worker dies or cannot be reached,
+ * the part of its shard it had not reported is put back for the other workers. A
+ * worker that sends nothing for longer than the read timeout (see setReadTimeout)
+ * is treated as dead, so a worker that hangs cannot stall the sweep. A worker that
+ * refuses a shard (because its dictionary is not the coordinator's) fails the whole
+ * sweep, as every other worker would be reading the same wrong words.
+ * Statistics merge the same in any order, so the result is the same as
+ * WordleAIAnalyser.getStatistics after runExperimentsWithAllWords.
+ * 
+ * Workers can be started as local JVMs with launchWorkers, or already running ones
+ * added with addWorker.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleShardCoordinator implements Closeable
+{
+    // How long a launched worker has to say it is ready
+    private static final long LAUNCH_TIMEOUT_SECONDS = 60;
+    // The default time a worker has to connect or to send its next batch
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 60000;
+    
+    private WordleDictionary dictionary;
+    private String wordsFilePath;
+    private int wordLength;
+    private String strategy;
+    private ArrayList<InetSocketAddress> workers;
+    private ArrayList<Process> processes;
+    private AtomicInteger numRedispatched;
+    private int readTimeoutMillis;
+    
+    /**
+     * Constructs a coordinator for the words of the given length in dictionary,
+     * which was read from wordsFilePath (launched workers read the same file).
+     * The default WordleAI is used.
+     */
+    public WordleShardCoordinator(WordleDictionary dictionary, String wordsFilePath, int wordLength)
+    {
+        this.dictionary = dictionary;
+        this.wordsFilePath = wordsFilePath;
+        this.wordLength = wordLength;
+        strategy = "smallest";
+        workers = new ArrayList<>();
+        processes = new ArrayList<>();
+        numRedispatched = new AtomicInteger();
+        readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+    }
+    
+    /**
+     * Sets the strategy the workers play with, by name: "smallest" for the default
+     * WordleAI or "entropy" for EntropyStrategy.
+     */
+    public void setStrategy(String strategy)
+    {
+        WordleShardWorker.getStrategy(strategy);
+        this.strategy = strategy;
+    }
+    
+    /**
+     * Sets how long a worker has to connect, and then to send each batch of a shard
+     * (each PARTIAL reply of WordleShardWorker) once it has been sent the shard,
+     * before it is treated as dead and its shard is put back. The default is 60 seconds.
+     */
+    public void setReadTimeout(int millis)
+    {
+        if (millis < 1)
+            throw new IllegalArgumentException("Read timeout must be positive: " + millis);
+        readTimeoutMillis = millis;
+    }
+    
+    /**
+     * Adds a worker that is already listening at address.
+     */
+    public synchronized void addWorker(InetSocketAddress address)
+    {
+        workers.add(address);
+    }
+    
+    /**
+     * Starts count workers, each in a new JVM on this machine with the same class path,
+     * reading the words file, and adds them. Each uses threadsPerWorker threads.
+     * The workers are stopped by close.
+     */
+    public synchronized void launchWorkers(int count, int threadsPerWorker) throws IOException
+    {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (int i = 0; i < count; i++) {
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "WordleShardWorker", wordsFilePath, "0", Integer.toString(threadsPerWorker))
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            processes.add(process);
+            workers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(process)));
+        }
+    }
+    
+    /**
+     * Splits the words into numShards shards of nearly the same size, sends them to
+     * the workers, and returns the merged statistics of every experiment.
+     * Throws IOException if every worker fails before the sweep is done, or if any
+     * worker refuses a shard.
+     */
+    public WordleStatistics run(int numShards) throws IOException
+    {
+        ArrayList<InetSocketAddress> addresses;
+        synchronized (this) {
+            addresses = new ArrayList<>(workers);
+        }
+        if (addresses.isEmpty())
+            throw new IllegalStateException("There are no workers");
+        
+        int numWords = dictionary.getNumWordsWithLength(wordLength);
+        long hash = dictionary.getHash(wordLength);
+        LinkedBlockingDeque<int[]> shards = new LinkedBlockingDeque<>();
+        int[] bounds = split(numWords, numShards);
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            if (bounds[i] < bounds[i + 1])
+                shards.add(new int[] {bounds[i], bounds[i + 1]});
+        }
+        
+        WordleStatistics merged = new WordleStatistics();
+        // The number of experiments whose statistics have arrived
+        AtomicInteger numDone = new AtomicInteger();
+        // Set when a worker refuses a shard, to stop every other worker
+        AtomicReference<IOException> refused = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(addresses.size());
+        try {
+            ArrayList<Future<IOException>> failures = new ArrayList<>();
+            for (InetSocketAddress address: addresses) {
+                failures.add(executor.submit(() -> work(address, hash, shards, merged, numDone, numWords,
+                                                          refused)));
+            }
+            IOException failure = null;
+            for (Future<IOException> future: failures) {
+                IOException e = future.get();
+                if (e != null)
+                    failure = e;
+            }
+            if (refused.get() != null)
+                throw refused.get();
+            if (numDone.get() < numWords)
+                throw new IOException("Every worker failed with " + (numWords - numDone.get())
+                                      + " experiments left to run", failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for workers");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return merged;
+    }
+    
+    /**
+     * Returns the number of times part of a shard was put back because its worker failed.
+     */
+    public int getNumRedispatched()
+    {
+        return numRedispatched.get();
+    }
+    
+    /**
+     * Returns the boundaries of numShards ranges of numWords words with sizes that differ
+     * by at most one: range i is from bounds[i] up to (not including) bounds[i + 1].
+     */
+    public static int[] split(int numWords, int numShards)
+    {
+        if (numShards < 1)
+            throw new IllegalArgumentException("There must be at least 1 shard: " + numShards);
+        int[] bounds = new int[numShards + 1];
+        for (int i = 0; i <= numShards; i++)
+            bounds[i] = (int) ((long) numWords * i / numShards);
+        return bounds;
+    }
+    
+    /**
+     * Stops every launched worker.
+     */
+    public synchronized void close()
+    {
+        for (Process process: processes)
+            process.destroy();
+        processes.clear();
+    }
+    
+    /**
+     * Runs shards on the worker at address until there are none left, every other
+     * worker has finished, or a worker has refused a shard. Returns the exception
+     * the worker failed with, or null.
+     */
+    private IOException work(InetSocketAddress address, long hash, LinkedBlockingDeque<int[]> shards,
+                             WordleStatistics merged, AtomicInteger numDone, int numWords,
+                             AtomicReference<IOException> refused)
+    {
+        try (Socket socket = connect(address);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (numDone.get() < numWords && refused.get() == null) {
+                // A shard put back by a failed worker may still arrive, so keep waiting until the sweep is done
+                int[] shard = shards.poll(50, TimeUnit.MILLISECONDS);
+                if (shard == null)
+                    continue;
+                try {
+                    runShard(shard, hash, in, out, merged, numDone, refused);
+                } catch (IOException e) {
+                    // Including a SocketTimeoutException from a worker that has stopped replying
+                    if (refused.get() == null) {
+                        numRedispatched.incrementAndGet();
+                        shards.addFirst(shard);
+                    }
+                    return e;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    /**
+     * Returns a socket connected to the worker at address, whose reads time out after the read timeout.
+     */
+    private Socket connect(InetSocketAddress address) throws IOException
+    {
+        Socket socket = new Socket();
+        try {
+            socket.connect(address, readTimeoutMillis);
+            socket.setSoTimeout(readTimeoutMillis);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+    
+    /**
+     * Sends one shard to a worker and merges the statistics it sends back. shard[0] is
+     * moved past each batch that arrives, so on failure shard is what is left to run.
+     * If the worker refuses the shard, its message is put in refused and thrown.
+     */
+    private void runShard(int[] shard, long hash, DataInputStream in, DataOutputStream out,
+                          WordleStatistics merged, AtomicInteger numDone, AtomicReference<IOException> refused)
+        throws IOException
+    {
+        out.writeInt(WordleShardWorker.REQUEST_MAGIC);
+        out.writeInt(wordLength);
+        out.writeLong(hash);
+        out.writeUTF(strategy);
+        out.writeInt(shard[0]);
+        out.writeInt(shard[1]);
+        out.flush();
+        
+        while (true) {
+            byte tag = in.readByte();
+            if (tag == WordleShardWorker.DONE)
+                return;
+            if (tag == WordleShardWorker.ERROR) {
+                IOException e = new IOException("Worker refused shard: " + in.readUTF());
+                refused.compareAndSet(null, e);
+                throw e;
+            }
+            if (tag != WordleShardWorker.PARTIAL)
+                throw new IOException("Unexpected reply from worker: " + tag);
+            int end = in.readInt();
+            WordleStatistics batch = WordleStatistics.read(in);
+            synchronized (merged) {
+                merged.merge(batch);
+            }
+            numDone.addAndGet(end - shard[0]);
+            shard[0] = end;
+        }
+    }
+    
+    /**
+     * Returns the port a launched worker says it is listening on.
+     */
+    private static int readPort(Process process) throws IOException
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                                                                         StandardCharsets.UTF_8));
+        CompletableFuture<String> line = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            String ready = line.get(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (ready == null || !ready.startsWith("READY "))
+                throw new IOException("Worker did not start: " + ready);
+            return Integer.parseInt(ready.substring(6).trim());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while starting a worker");
+        } catch (ExecutionException | TimeoutException e) {
+            process.destroy();
+            throw new IOException("Worker did not start", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A worker that runs shards of a sweep for a WordleShardCoordinator, usually in its own JVM.
+ * 
+ * The worker listens on the loopback address. A coordinator connects and sends
+ * requests, each for the experiments on a range of the words of one length, in
+ * dictionary order (as WordleAIAnalyser.runExperimentsWithAllWords uses them).
+ * The worker checks that its dictionary has the same words of that length as the
+ * coordinator's, runs the experiments, and sends back the WordleStatistics of each
+ * batch of them as it goes, so if it dies part way, only the rest of the range
+ * has to be run again.
+ * 
+ * A request is: REQUEST_MAGIC, word length, WordleDictionary.getHash of that length,
+ * strategy name ("smallest" or "entropy"), first index, end index (exclusive).
+ * The reply is a PARTIAL byte, the index after the batch and the batch's
+ * statistics (see WordleStatistics.write) for each batch, then a DONE byte, or an
+ * ERROR byte and a message.
+ * 
+ * Run from the command line, the worker prints "READY port" once it is listening.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleShardWorker
+{
+    // The first int of a request, "WSH1"
+    static final int REQUEST_MAGIC = 0x57534831;
+    // Reply tags
+    static final byte DONE = 0;
+    static final byte PARTIAL = 1;
+    static final byte ERROR = 2;
+    
+    private WordleDictionary dictionary;
+    private int parallelism;
+    private ServerSocket server;
+    private ExecutorService executor;
+    
+    /**
+     * Constructs a worker over the words of dictionary, running each request on parallelism threads.
+     */
+    public WordleShardWorker(WordleDictionary dictionary, int parallelism)
+    {
+        this.dictionary = dictionary;
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Starts listening on the loopback address at port (0 picks a free port).
+     * Each coordinator connection is served on its own thread.
+     */
+    public synchronized void start(int port) throws IOException
+    {
+        if (server != null)
+            throw new IllegalStateException("The worker is already running");
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool();
+        ServerSocket listening = server;
+        executor.execute(() -> {
+            while (!listening.isClosed()) {
+                try {
+                    Socket socket = listening.accept();
+                    executor.execute(() -> serve(socket));
+                } catch (IOException | RejectedExecutionException e) {
+                    // Closed by stop
+                }
+            }
+        });
+    }
+    
+    /**
+     * Stops listening and drops every connection.
+     */
+    public synchronized void stop()
+    {
+        if (server == null)
+            return;
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        executor.shutdownNow();
+        server = null;
+    }
+    
+    /**
+     * Returns the port the worker is listening on.
+     */
+    public synchronized int getPort()
+    {
+        if (server == null)
+            throw new IllegalStateException("The worker is not running");
+        return server.getLocalPort();
+    }
+    
+    /**
+     * Runs a worker until the process is stopped. The arguments are the word file,
+     * and optionally the port (default 0, any free port) and number of threads.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1) {
+            System.err.println("Usage: java WordleShardWorker words [port] [threads]");
+            System.exit(2);
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        WordleShardWorker worker = new WordleShardWorker(new WordleDictionary(args[0]), threads);
+        worker.start(port);
+        System.out.println("READY " + worker.getPort());
+        System.out.flush();
+    }
+    
+    /**
+     * Returns the strategy with the given name, or null for the default WordleAI.
+     */
+    static GuessStrategy getStrategy(String name)
+    {
+        switch (name) {
+            case "smallest":
+                return null;
+            case "entropy":
+                return new EntropyStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+    
+    /**
+     * Answers the requests on one connection until it is closed.
+     */
+    private void serve(Socket socket)
+    {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                int magic;
+                try {
+                    magic = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (magic != REQUEST_MAGIC)
+                    throw new IOException("Not a shard request");
+                int length = in.readInt();
+                long hash = in.readLong();
+                String strategy = in.readUTF();
+                int from = in.readInt();
+                int to = in.readInt();
+                try {
+                    runShard(length, hash, strategy, from, to, out);
+                } catch (IllegalArgumentException e) {
+                    out.writeByte(ERROR);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The coordinator went away; it will send the rest of the range elsewhere
+        }
+    }
+    
+    private void runShard(int length, long hash, String strategyName, int from, int to, DataOutputStream out)
+        throws IOException
+    {
+        if (dictionary.getHash(length) != hash)
+            throw new IllegalArgumentException("The worker's words of length " + length + " are not the coordinator's");
+        List<String> words = dictionary.getWordsWithLengthView(length);
+        if (from < 0 || to > words.size() || from > to)
+            throw new IllegalArgumentException("Range " + from + " to " + to + " is outside " + words.size() + " words");
+        
+        GuessStrategy strategy = getStrategy(strategyName);
+        WordleAIAnalyser analyser = strategy == null ? new WordleAIAnalyser(dictionary, length)
+                                                     : new WordleAIAnalyser(dictionary, length, strategy);
+        analyser.setParallelism(parallelism);
+        // Batches reach the sink in order, so the index after each one is known
+        int[] end = {from};
+        analyser.streamExperiments(words.subList(from, to).iterator(), batch -> {
+            end[0] += batch.size();
+            out.writeByte(PARTIAL);
+            out.writeInt(end[0]);
+            new WordleStatistics(batch).write(out);
+            out.flush();
+        });
+        out.writeByte(DONE);
+    }
+}
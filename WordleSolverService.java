@@ -0,0 +1,270 @@
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local HTTP service that tells clients the next guess the WordleAI would make.
+ * 
+ * A client sends the guesses and results of its game so far and gets back the
+ * word that the service's GuessStrategy picks from the candidates they leave:
+ * 
+ *     GET /next?length=5&history=aback:_.___,crane:**_._
+ *     {"guess":"crate","candidates":3}
+ * 
+ * The history is a comma-separated list of guess:result pairs, where a result is
+ * the string WordleGame.guessWord returned. length may be left out when the history
+ * is not empty. The guess is null if no word fits the history.
+ * 
+ * Candidate sets are shared between clients through a WordleCandidateCache, so
+ * a common history is only worked out once. GET /stats reports the number of
+ * requests, the cache hit rate and request latencies.
+ * 
+ * The service only listens on the loopback address. Requests are handled on a fixed
+ * pool of threads (virtual threads are not available before Java 21).
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleSolverService
+{
+    // The latencies of this many recent requests are kept for the percentiles
+    private static final int NUM_LATENCIES = 8192;
+    
+    private WordleDictionary dictionary;
+    private GuessStrategy strategy;
+    private WordleCandidateCache cache;
+    private HttpServer server;
+    private ExecutorService executor;
+    private AtomicLong numRequests;
+    // A ring of recent request latencies in nanoseconds, written at numRequests % NUM_LATENCIES
+    private long[] latencies;
+    
+    /**
+     * Constructs a service that answers with strategy over the words of dictionary,
+     * caching at most cacheSize candidate sets.
+     */
+    public WordleSolverService(WordleDictionary dictionary, GuessStrategy strategy, int cacheSize)
+    {
+        this.dictionary = dictionary;
+        this.strategy = strategy;
+        cache = new WordleCandidateCache(dictionary, cacheSize);
+        numRequests = new AtomicLong();
+        latencies = new long[NUM_LATENCIES];
+    }
+    
+    /**
+     * Starts listening on the loopback address at port (0 picks a free port),
+     * handling requests on the given number of threads.
+     */
+    public synchronized void start(int port, int threads) throws IOException
+    {
+        if (server != null)
+            throw new IllegalStateException("The service is already running");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/next", this::handleNext);
+        server.createContext("/stats", exchange -> respond(exchange, 200, getStats()));
+        server.start();
+    }
+    
+    /**
+     * Stops the service, waiting at most a second for requests being handled.
+     */
+    public synchronized void stop()
+    {
+        if (server == null)
+            return;
+        server.stop(1);
+        executor.shutdown();
+        server = null;
+    }
+    
+    /**
+     * Returns the port the service is listening on.
+     */
+    public synchronized int getPort()
+    {
+        if (server == null)
+            throw new IllegalStateException("The service is not running");
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Returns the next guess for a game of the given word length with these guesses
+     * and results so far, or null if no word is consistent with them.
+     * This is what a /next request returns, without the HTTP.
+     */
+    public String nextGuess(int length, List<String> guesses, List<String> results)
+    {
+        checkLength(length);
+        WordleCandidateIndex index = dictionary.getCandidateIndex(length);
+        int next = strategy.nextGuess(index, cache.getCandidates(length, guesses, results), guesses.size());
+        return next < 0 ? null : index.getWord(next);
+    }
+    
+    /**
+     * Returns the candidate cache shared by all requests.
+     */
+    public WordleCandidateCache getCache()
+    {
+        return cache;
+    }
+    
+    /**
+     * Returns the number of /next requests handled.
+     */
+    public long getNumRequests()
+    {
+        return numRequests.get();
+    }
+    
+    /**
+     * Returns the latency in nanoseconds that a fraction (from 0 to 1) of
+     * recent /next requests took at most, or 0 if there have been none.
+     */
+    public long getLatencyPercentile(double fraction)
+    {
+        int count = (int) Math.min(numRequests.get(), NUM_LATENCIES);
+        if (count == 0)
+            return 0;
+        long[] recent;
+        synchronized (latencies) {
+            recent = Arrays.copyOf(latencies, count);
+        }
+        Arrays.sort(recent);
+        return recent[Math.max(0, (int) Math.ceil(fraction * count) - 1)];
+    }
+    
+    /**
+     * Returns the request count, cache hit rate and latency percentiles as JSON.
+     */
+    public String getStats()
+    {
+        return String.format("{\"requests\":%d,\"cacheHits\":%d,\"cacheMisses\":%d,\"cacheHitRate\":%.4f,"
+            + "\"cacheSize\":%d,\"p50Nanos\":%d,\"p99Nanos\":%d}", getNumRequests(), cache.getHits(),
+            cache.getMisses(), cache.getHitRate(), cache.size(), getLatencyPercentile(0.5), getLatencyPercentile(0.99));
+    }
+    
+    /**
+     * Runs the service until the process is stopped. The arguments are an optional
+     * word file (default words.txt), port (default 8080) and number of threads.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String wordsFile = args.length > 0 ? args[0] : "words.txt";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4 * Runtime.getRuntime().availableProcessors();
+        WordleSolverService service = new WordleSolverService(new WordleDictionary(wordsFile),
+            GuessStrategy.SMALLEST_CONSISTENT, 100000);
+        service.start(port, threads);
+        System.out.println("Listening on http://localhost:" + service.getPort() + "/next");
+    }
+    
+    private void handleNext(HttpExchange exchange) throws IOException
+    {
+        long start = System.nanoTime();
+        try {
+            int status = 200;
+            String body;
+            try {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                ArrayList<String> guesses = new ArrayList<>();
+                ArrayList<String> results = new ArrayList<>();
+                String history = query.getOrDefault("history", "");
+                for (String pair: history.isEmpty() ? new String[0] : history.split(",")) {
+                    String[] parts = pair.split(":", -1);
+                    if (parts.length != 2)
+                        throw new IllegalArgumentException("Expected guess:result but found " + pair);
+                    guesses.add(parts[0]);
+                    results.add(parts[1]);
+                }
+                
+                int length;
+                if (query.containsKey("length"))
+                    length = Integer.parseInt(query.get("length"));
+                else if (!guesses.isEmpty())
+                    length = guesses.get(0).length();
+                else
+                    throw new IllegalArgumentException("Either length or history is needed");
+                // Checked before the index or cache is touched, since each length gets an index for good
+                checkLength(length);
+                for (int i = 0; i < guesses.size(); i++)
+                    checkPair(length, guesses.get(i), results.get(i));
+                
+                WordleCandidateIndex index = dictionary.getCandidateIndex(length);
+                long[] candidates = cache.getCandidates(length, guesses, results);
+                int next = strategy.nextGuess(index, candidates, guesses.size());
+                body = "{\"guess\":" + (next < 0 ? "null" : "\"" + index.getWord(next) + "\"")
+                    + ",\"candidates\":" + WordleCandidateIndex.count(candidates) + "}";
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                body = error(e);
+            } catch (RuntimeException e) {
+                // A bug rather than a bad request, but the client still gets an answer
+                status = 500;
+                body = error(e);
+            }
+            respond(exchange, status, body);
+        } finally {
+            // Failed requests count towards the latencies too
+            long latency = System.nanoTime() - start;
+            long request = numRequests.getAndIncrement();
+            synchronized (latencies) {
+                latencies[(int) (request % NUM_LATENCIES)] = latency;
+            }
+        }
+    }
+    
+    private static String error(RuntimeException e)
+    {
+        return "{\"error\":\"" + String.valueOf(e.getMessage()).replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+    
+    private void checkLength(int length)
+    {
+        if (!dictionary.getWordLengths().contains(length))
+            throw new IllegalArgumentException("There are no words of length " + length);
+    }
+    
+    private static void checkPair(int length, String guess, String result)
+    {
+        if (guess.length() != length || result.length() != length)
+            throw new IllegalArgumentException("Guess and result must have length " + length + ": " + guess + ":" + result);
+        for (int i = 0; i < length; i++) {
+            char letter = guess.charAt(i);
+            char feedback = result.charAt(i);
+            if (letter < 'a' || letter > 'z')
+                throw new IllegalArgumentException("Guesses must be lowercase letters: " + guess);
+            if (feedback != '*' && feedback != '.' && feedback != '_')
+                throw new IllegalArgumentException("Results must be made of '*', '.' and '_': " + result);
+        }
+    }
+    
+    private static Map<String, String> parseQuery(String query)
+    {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (query == null)
+            return parameters;
+        for (String parameter: query.split("&")) {
+            int split = parameter.indexOf('=');
+            if (split > 0)
+                parameters.put(URLDecoder.decode(parameter.substring(0, split), StandardCharsets.UTF_8),
+                               URLDecoder.decode(parameter.substring(split + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
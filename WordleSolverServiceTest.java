@@ -0,0 +1,153 @@
+import static org.junit.Assert.*;
+
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The test class WordleSolverServiceTest.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleSolverServiceTest
+{
+    private static final String[] WORDS = {"hit", "log", "ate", "cat", "axe", "bat", "hat", "cot", "cog", "dog"};
+    
+    @Test
+    public void testNextGuessMatchesFindWord()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleSolverService service = new WordleSolverService(dict, GuessStrategy.SMALLEST_CONSISTENT, 100);
+        for (String secret: WORDS) {
+            ArrayList<String> expected = WordleAI.findWord(dict, new WordleGame(secret));
+            WordleGame game = new WordleGame(secret);
+            ArrayList<String> guesses = new ArrayList<>();
+            ArrayList<String> results = new ArrayList<>();
+            for (String guess: expected) {
+                assertEquals(guess, service.nextGuess(3, guesses, results));
+                guesses.add(guess);
+                results.add(game.guessWord(guess));
+            }
+        }
+    }
+    
+    @Test
+    public void testCandidateCache()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleCandidateCache cache = new WordleCandidateCache(dict, 2);
+        long[] first = cache.getCandidates(3, Arrays.asList("cat", "hit"), Arrays.asList("_*_", "__*"));
+        // The same history in another order, with a repeated guess, is a hit
+        long[] second = cache.getCandidates(3, Arrays.asList("hit", "cat", "hit"), Arrays.asList("__*", "_*_", "__*"));
+        assertArrayEquals(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.size());
+        
+        ArrayList<String> expected = new ArrayList<>();
+        for (String word: dict.getSortedWordsWithLength(3)) {
+            if (WordleAI.isConsistent("cat", "_*_", word) && WordleAI.isConsistent("hit", "__*", word))
+                expected.add(word);
+        }
+        int[] ids = WordleCandidateIndex.toIds(first);
+        assertEquals(expected.size(), ids.length);
+        for (int i = 0; i < ids.length; i++)
+            assertEquals(expected.get(i), dict.getCandidateIndex(3).getWord(ids[i]));
+    }
+    
+    @Test
+    public void testCandidateCacheFollowsGame()
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleCandidateCache cache = new WordleCandidateCache(dict, 100);
+        // Guesses that are not in sorted order, as a client playing its own game sends them
+        String[] guesses = {"log", "dog", "cog"};
+        WordleGame game = new WordleGame("cog");
+        ArrayList<String> results = new ArrayList<>();
+        for (String guess: guesses)
+            results.add(game.guessWord(guess));
+        
+        for (int depth = 1; depth <= guesses.length; depth++) {
+            cache.getCandidates(3, Arrays.asList(guesses).subList(0, depth), results.subList(0, depth));
+            // Each history is worked out from the one before, so only the histories asked for are cached
+            assertEquals(depth, cache.size());
+        }
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        
+        // Playing the same game again hits every time
+        for (int depth = 1; depth <= guesses.length; depth++)
+            cache.getCandidates(3, Arrays.asList(guesses).subList(0, depth), results.subList(0, depth));
+        assertEquals(3, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(3, cache.size());
+    }
+    
+    @Test
+    public void testHttp() throws IOException
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        WordleSolverService service = new WordleSolverService(dict, GuessStrategy.SMALLEST_CONSISTENT, 100);
+        service.start(0, 2);
+        try {
+            assertEquals("{\"guess\":\"ate\",\"candidates\":10}", get(service, "/next?length=3"));
+            assertEquals("{\"guess\":\"bat\",\"candidates\":3}", get(service, "/next?history=ate:.._"));
+            assertTrue(get(service, "/stats").startsWith("{\"requests\":2,"));
+            
+            // Lengths with no words are refused before any index is built for them
+            assertEquals(400, status(service, "/next?length=-1"));
+            assertEquals(400, status(service, "/next?length=2000000000"));
+            assertEquals(400, status(service, "/next?length=4"));
+            assertEquals(400, status(service, "/next?length=x"));
+            assertEquals(200, status(service, "/next?length=3"));
+        } finally {
+            service.stop();
+        }
+    }
+    
+    @Test
+    public void testHttpErrors() throws IOException, InterruptedException
+    {
+        WordleDictionary dict = new WordleDictionary(new ArrayList<>(Arrays.asList(WORDS)));
+        // A strategy that fails on a second guess, with no message
+        GuessStrategy failing = (index, candidates, numGuesses) -> {
+            if (numGuesses == 0)
+                throw new IllegalStateException("broken");
+            throw new IllegalArgumentException();
+        };
+        WordleSolverService service = new WordleSolverService(dict, failing, 100);
+        service.start(0, 2);
+        try {
+            assertEquals(500, status(service, "/next?length=3"));
+            assertEquals(400, status(service, "/next?history=ate:.._"));
+            // Failed requests are still counted and timed, just after their response is sent
+            for (int i = 0; i < 100 && service.getNumRequests() < 2; i++)
+                Thread.sleep(10);
+            assertEquals(2, service.getNumRequests());
+            assertTrue(service.getLatencyPercentile(0.99) > 0);
+        } finally {
+            service.stop();
+        }
+    }
+    
+    private static int status(WordleSolverService service, String path) throws IOException
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + service.getPort() + path)
+            .openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    private static String get(WordleSolverService service, String path) throws IOException
+    {
+        URL url = new URL("http://localhost:" + service.getPort() + path);
+        try (InputStream in = url.openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
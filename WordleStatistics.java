@@ -0,0 +1,228 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Running totals over a set of WordleExperimentResults.
+ * 
+ * Each result is counted once when it is recorded, so reading the letter
+ * frequencies, guess-count frequencies or unsolved words does not look at
+ * the results again. Statistics from several analysers can be combined with merge.
+ * 
+ * WordleStatistics is also a WordleResultSink, so it can total a stream of
+ * experiments without the results being kept.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleStatistics implements WordleResultSink
+{
+    private int numExperiments;
+    private int[] guessLetterFrequency;
+    private int[] numGuessesFrequency;
+    // The number of unsolved results recorded for each unsolved word
+    private TreeMap<String, Integer> unsolvedWords;
+    
+    /**
+     * Constructs statistics with no experiments recorded.
+     */
+    public WordleStatistics()
+    {
+        guessLetterFrequency = new int[26];
+        numGuessesFrequency = new int[7];
+        unsolvedWords = new TreeMap<>();
+    }
+    
+    /**
+     * Constructs statistics with every result in results recorded.
+     */
+    public WordleStatistics(List<WordleExperimentResult> results)
+    {
+        this();
+        for (WordleExperimentResult result: results)
+            record(result);
+    }
+    
+    /**
+     * Adds one experiment result to the totals.
+     */
+    public void record(WordleExperimentResult result)
+    {
+        record(result.getWord(), result.getGuesses());
+    }
+    
+    /**
+     * Adds one experiment to the totals, given its secret word and guesses
+     * (null if the word was not solved).
+     */
+    public void record(String word, List<String> guesses)
+    {
+        numExperiments++;
+        if (guesses == null) {
+            numGuessesFrequency[6]++;
+            unsolvedWords.merge(word, 1, Integer::sum);
+            return;
+        }
+        
+        numGuessesFrequency[guesses.size() - 1]++;
+        for (String guess: guesses) {
+            for (int i = 0; i < guess.length(); i++)
+                guessLetterFrequency[guess.charAt(i) - 'a']++;
+        }
+    }
+    
+    /**
+     * Takes one experiment result, recorded earlier, back out of the totals.
+     * An unsolved word stays unsolved while any other unsolved result for it is still recorded.
+     */
+    public void remove(WordleExperimentResult result)
+    {
+        numExperiments--;
+        List<String> guesses = result.getGuesses();
+        if (guesses == null) {
+            numGuessesFrequency[6]--;
+            unsolvedWords.computeIfPresent(result.getWord(), (word, count) -> count == 1 ? null : count - 1);
+            return;
+        }
+        
+        numGuessesFrequency[guesses.size() - 1]--;
+        for (String guess: guesses) {
+            for (int i = 0; i < guess.length(); i++)
+                guessLetterFrequency[guess.charAt(i) - 'a']--;
+        }
+    }
+    
+    /**
+     * Adds a batch of streamed results to the totals.
+     */
+    public void accept(List<WordleExperimentResult> batch)
+    {
+        for (WordleExperimentResult result: batch)
+            record(result);
+    }
+    
+    /**
+     * Adds the totals of other to these totals.
+     */
+    public void merge(WordleStatistics other)
+    {
+        numExperiments += other.numExperiments;
+        for (int i = 0; i < guessLetterFrequency.length; i++)
+            guessLetterFrequency[i] += other.guessLetterFrequency[i];
+        for (int i = 0; i < numGuessesFrequency.length; i++)
+            numGuessesFrequency[i] += other.numGuessesFrequency[i];
+        for (Map.Entry<String, Integer> entry: other.unsolvedWords.entrySet())
+            unsolvedWords.merge(entry.getKey(), entry.getValue(), Integer::sum);
+    }
+    
+    /**
+     * Writes the totals to out in a compact binary form that read reads back.
+     */
+    public void write(DataOutput out) throws IOException
+    {
+        out.writeInt(numExperiments);
+        for (int count: guessLetterFrequency)
+            out.writeInt(count);
+        for (int count: numGuessesFrequency)
+            out.writeInt(count);
+        out.writeInt(unsolvedWords.size());
+        for (Map.Entry<String, Integer> entry: unsolvedWords.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+    
+    /**
+     * Returns statistics with the totals written by write.
+     */
+    public static WordleStatistics read(DataInput in) throws IOException
+    {
+        WordleStatistics statistics = new WordleStatistics();
+        statistics.numExperiments = in.readInt();
+        for (int i = 0; i < statistics.guessLetterFrequency.length; i++)
+            statistics.guessLetterFrequency[i] = in.readInt();
+        for (int i = 0; i < statistics.numGuessesFrequency.length; i++)
+            statistics.numGuessesFrequency[i] = in.readInt();
+        int numUnsolved = in.readInt();
+        for (int i = 0; i < numUnsolved; i++)
+            statistics.unsolvedWords.put(in.readUTF(), in.readInt());
+        return statistics;
+    }
+    
+    /**
+     * Returns the number of experiments recorded.
+     */
+    public int getNumExperiments()
+    {
+        return numExperiments;
+    }
+    
+    /**
+     * Returns the unsolved words in lexicographic order, without duplicates.
+     * See WordleAIAnalyser.getUnsolvedWords.
+     */
+    public ArrayList<String> getUnsolvedWords()
+    {
+        return new ArrayList<>(unsolvedWords.keySet());
+    }
+    
+    /**
+     * Returns true if word was recorded as unsolved.
+     */
+    public boolean isUnsolved(String word)
+    {
+        return unsolvedWords.containsKey(word);
+    }
+    
+    /**
+     * Returns the number of times each letter was guessed in solved experiments.
+     * See WordleAIAnalyser.getGuessLetterFrequency.
+     */
+    public int[] getGuessLetterFrequency()
+    {
+        return guessLetterFrequency.clone();
+    }
+    
+    /**
+     * Returns the number of experiments solved in 1 to 6 guesses, then the number unsolved.
+     * See WordleAIAnalyser.getNumGuessesFrequency.
+     */
+    public int[] getNumGuessesFrequency()
+    {
+        return numGuessesFrequency.clone();
+    }
+    
+    /**
+     * Returns the histogram of getNumGuessesFrequency (see WordleAIAnalyser.makeHistogram).
+     */
+    public String makeHistogram(int bucketSize)
+    {
+        return makeHistogram(numGuessesFrequency, bucketSize);
+    }
+    
+    /**
+     * Returns a histogram picture of a guess-count frequency table of length 7,
+     * as described in WordleAIAnalyser.makeHistogram.
+     */
+    public static String makeHistogram(int[] frequency, int bucketSize)
+    {
+        Integer[] height = new Integer[7];
+        String histogram = new String();
+        
+        // Calculate heights for each bar
+        for (int i = 0; i < 7; i++)
+            height[i] = frequency[i] / bucketSize;
+        
+        for (int i = Collections.max(Arrays.asList(height)); i > 0; i--) {
+            for (int j = 0; j < 7; j++) {
+                if (height[j] >= i)
+                    histogram += "*";
+                else
+                    histogram += ".";
+                    
+                if (j == 6)
+                    histogram += "\n";
+            }
+        }
+        
+        return histogram;
+    }
+}
@@ -0,0 +1,27 @@
+import jdk.jfr.*;
+
+/**
+ * A Java Flight Recorder event for one batch of experiments, such as
+ * runExperimentsWithAllWords, run by a WordleAIAnalyser with metrics enabled.
+ * The event lasts as long as the batch.
+ * 
+ * @author 22708346 AND 23614901
+ */
+@Name("wordle.Sweep")
+@Label("Wordle Sweep")
+@Category("Wordle")
+@Description("A batch of experiments run by a WordleAIAnalyser")
+public class WordleSweepEvent extends Event
+{
+    @Label("Word Length")
+    public int wordLength;
+    
+    @Label("Experiments")
+    public int numExperiments;
+    
+    @Label("Unsolved")
+    public int numUnsolved;
+    
+    @Label("Parallelism")
+    public int parallelism;
+}
@@ -0,0 +1,100 @@
+import java.util.*;
+
+/**
+ * Numbers every word in a WordleDictionary, of every length.
+ * 
+ * Ids are given in lexicographic order, and for each id the table keeps the
+ * word, its letter mask (see WordleGame.letterMask) and, for words that
+ * WordlePackedWord can pack, the packed word.
+ * 
+ * @author 22708346 AND 23614901
+ */
+public class WordleWordTable
+{
+    private String[] words;
+    private long[] packedWords;
+    private int[] letterMasks;
+    // The packed words in order, and the id of each, for looking up packed words without
+    // unpacking them. Packed words compare like the words, so this is in id order.
+    private long[] sortedPackedWords;
+    private int[] sortedPackedIds;
+    
+    /**
+     * Builds a table of words, which must be sorted without duplicates.
+     */
+    public WordleWordTable(String[] words)
+    {
+        this.words = words;
+        packedWords = new long[words.length];
+        letterMasks = new int[words.length];
+        int numPacked = 0;
+        for (int id = 0; id < words.length; id++) {
+            packedWords[id] = WordlePackedWord.canPack(words[id]) ? WordlePackedWord.pack(words[id]) : -1;
+            letterMasks[id] = WordleGame.letterMask(words[id]);
+            if (packedWords[id] >= 0)
+                numPacked++;
+        }
+        
+        sortedPackedWords = new long[numPacked];
+        sortedPackedIds = new int[numPacked];
+        int i = 0;
+        for (int id = 0; id < words.length; id++) {
+            if (packedWords[id] >= 0) {
+                sortedPackedWords[i] = packedWords[id];
+                sortedPackedIds[i] = id;
+                i++;
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of words in the table.
+     */
+    public int size()
+    {
+        return words.length;
+    }
+    
+    /**
+     * Returns the id of word, or -1 if it is not in the table.
+     */
+    public int getId(String word)
+    {
+        int id = Arrays.binarySearch(words, word);
+        return id >= 0 ? id : -1;
+    }
+    
+    /**
+     * Returns the id of a packed word, or -1 if it is not in the table.
+     */
+    public int getId(long packedWord)
+    {
+        int i = Arrays.binarySearch(sortedPackedWords, packedWord);
+        return i >= 0 ? sortedPackedIds[i] : -1;
+    }
+    
+    /**
+     * Returns the word with the given id.
+     */
+    public String getWord(int id)
+    {
+        return words[id];
+    }
+    
+    /**
+     * Returns the word with the given id packed by WordlePackedWord,
+     * or -1 if it cannot be packed.
+     */
+    public long getPackedWord(int id)
+    {
+        return packedWords[id];
+    }
+    
+    /**
+     * Returns the letter mask of the word with the given id.
+     */
+    public int getLetterMask(int id)
+    {
+        return letterMasks[id];
+    }
+}